@@ -0,0 +1,58 @@
+package com.cejv416.dbjavafxdemo.beans;
+
+import java.util.function.Function;
+
+/**
+ * The columns of the FISH table that are used to group fish into categories.
+ * Each constant knows its column name for SQL and how to read the same value
+ * from a FishData bean so that the database and the beans can be grouped the
+ * same way.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public enum FishCategory {
+
+    DIET("DIET", "Diet", FishData::getDiet),
+    SPECIESORIGIN("SPECIESORIGIN", "Species Origin", FishData::getSpeciesOrigin),
+    STOCKING("STOCKING", "Stocking", FishData::getStocking);
+
+    private final String column;
+    private final String label;
+    private final Function<FishData, String> accessor;
+
+    FishCategory(final String column, final String label, final Function<FishData, String> accessor) {
+        this.column = column;
+        this.label = label;
+        this.accessor = accessor;
+    }
+
+    /**
+     * The column name is a constant and never user input so it is safe to use
+     * when building an SQL statement
+     *
+     * @return The name of the column in the FISH table
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * @return A description suitable for display
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Retrieve the value of this category from a bean. A null is returned as
+     * an empty string as that is the default value of the column.
+     *
+     * @param fishData
+     * @return The value of the column for this fish
+     */
+    public String valueOf(final FishData fishData) {
+        String value = accessor.apply(fishData);
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,187 @@
+package com.cejv416.dbjavafxdemo.beans;
+
+/**
+ * Immutable form of FishData. All fields are final so an object can be shared
+ * between threads and used as a key in a map or cache. The hash code is
+ * computed once in the constructor and is compared first in equals so that
+ * most unequal objects are rejected without comparing any strings.
+ *
+ * Equality follows FishData and does not include the id.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ *
+ */
+public final class ImmutableFishData {
+
+    private final int id;
+    private final String commonName;
+    private final String latin;
+    private final String ph;
+    private final String kh;
+    private final String temp;
+    private final String fishSize;
+    private final String speciesOrigin;
+    private final String tankSize;
+    private final String stocking;
+    private final String diet;
+    private final int hash;
+
+    /**
+     * Non-default constructor
+     *
+     * @param id
+     * @param commonName
+     * @param latin
+     * @param ph
+     * @param kh
+     * @param temp
+     * @param fishSize
+     * @param speciesOrigin
+     * @param tankSize
+     * @param stocking
+     * @param diet
+     */
+    public ImmutableFishData(final int id, final String commonName, final String latin, final String ph,
+            final String kh, final String temp, final String fishSize, final String speciesOrigin,
+            final String tankSize, final String stocking, final String diet) {
+        this.id = id;
+        this.commonName = commonName;
+        this.latin = latin;
+        this.ph = ph;
+        this.kh = kh;
+        this.temp = temp;
+        this.fishSize = fishSize;
+        this.speciesOrigin = speciesOrigin;
+        this.tankSize = tankSize;
+        this.stocking = stocking;
+        this.diet = diet;
+        this.hash = computeHash();
+    }
+
+    /**
+     * Create an immutable copy of a FishData bean
+     *
+     * @param fishData
+     * @return The immutable copy
+     */
+    public static ImmutableFishData of(final FishData fishData) {
+        return new ImmutableFishData(fishData.getId(), fishData.getCommonName(), fishData.getLatin(),
+                fishData.getPh(), fishData.getKh(), fishData.getTemp(), fishData.getFishSize(),
+                fishData.getSpeciesOrigin(), fishData.getTankSize(), fishData.getStocking(), fishData.getDiet());
+    }
+
+    /**
+     * Create a mutable bean with the same values
+     *
+     * @return A new FishData
+     */
+    public FishData toFishData() {
+        return new FishData(id, commonName, latin, ph, kh, temp, fishSize, speciesOrigin, tankSize, stocking, diet);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getCommonName() {
+        return commonName;
+    }
+
+    public String getLatin() {
+        return latin;
+    }
+
+    public String getPh() {
+        return ph;
+    }
+
+    public String getKh() {
+        return kh;
+    }
+
+    public String getTemp() {
+        return temp;
+    }
+
+    public String getFishSize() {
+        return fishSize;
+    }
+
+    public String getSpeciesOrigin() {
+        return speciesOrigin;
+    }
+
+    public String getTankSize() {
+        return tankSize;
+    }
+
+    public String getStocking() {
+        return stocking;
+    }
+
+    public String getDiet() {
+        return diet;
+    }
+
+    @Override
+    public String toString() {
+        return toFishData().toString();
+    }
+
+    /**
+     * Same calculation as FishData.hashCode so that a bean and its immutable
+     * copy have the same hash code
+     */
+    private int computeHash() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + hashOf(commonName);
+        result = prime * result + hashOf(diet);
+        result = prime * result + hashOf(fishSize);
+        result = prime * result + hashOf(kh);
+        result = prime * result + hashOf(latin);
+        result = prime * result + hashOf(ph);
+        result = prime * result + hashOf(speciesOrigin);
+        result = prime * result + hashOf(stocking);
+        result = prime * result + hashOf(tankSize);
+        result = prime * result + hashOf(temp);
+        return result;
+    }
+
+    private static int hashOf(final String s) {
+        return s == null ? 0 : s.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ImmutableFishData other)) {
+            return false;
+        }
+        // Different hash codes can never be equal so the strings are only
+        // compared when the hash codes match
+        return hash == other.hash
+                && equal(commonName, other.commonName)
+                && equal(diet, other.diet)
+                && equal(fishSize, other.fishSize)
+                && equal(kh, other.kh)
+                && equal(latin, other.latin)
+                && equal(ph, other.ph)
+                && equal(speciesOrigin, other.speciesOrigin)
+                && equal(stocking, other.stocking)
+                && equal(tankSize, other.tankSize)
+                && equal(temp, other.temp);
+    }
+
+    private static boolean equal(final String a, final String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,248 @@
+package com.cejv416.dbjavafxdemo.business;
+
+import com.cejv416.dbjavafxdemo.beans.FishCategory;
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.persistence.FishDAO;
+import com.cejv416.dbjavafxdemo.persistence.FishDAOListener;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a count of the fish in each DIET, SPECIESORIGIN and STOCKING value.
+ * The counts are loaded once with a GROUP BY query and are then kept current
+ * from the create, update and delete notifications of the FishDAO so that the
+ * table never has to be read again to answer a count.
+ *
+ * Each value has its own LongAdder so concurrent writers do not contend on a
+ * single counter. Changes made to the table by another program are not seen
+ * until refresh is called.
+ *
+ * The counters belong to a generation and a refresh starts a new one. Each
+ * commit of the DAO is stamped with the current generation in beforeCommit
+ * and its notifications go to the counters of that generation. A refresh
+ * waits for the commits stamped with the old generation to finish before it
+ * counts, so the counts include them, and a commit stamped with the new
+ * generation waits for the counting to finish before it commits, so the
+ * counts never include it. Either way a change is counted exactly once.
+ * Readers see the old counters until the new ones are complete.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public final class FishAggregateService implements FishDAOListener {
+
+    private static final Logger LOG = Logger.getLogger(FishAggregateService.class.getName());
+
+    // How long a refresh sleeps between checks for commits still in flight
+    private static final long DRAIN_WAIT_NANOS = 100_000;
+
+    private final FishDAO fishDAO;
+    private volatile Generation current;
+    // The generation of the commit the current thread is making
+    private final ThreadLocal<Generation> stamped = new ThreadLocal<>();
+
+    /**
+     * Constructor that registers this service as a listener of the DAO. Call
+     * refresh to load the initial counts.
+     *
+     * @param fishDAO
+     */
+    public FishAggregateService(final FishDAO fishDAO) {
+        this.fishDAO = fishDAO;
+        this.current = new Generation(emptyCounters(), false);
+        fishDAO.addListener(this);
+    }
+
+    /**
+     * Replace the counts with fresh values from the database. One GROUP BY
+     * query is run for each category. Commits through the DAO that begin
+     * while the counts are loading wait until they are loaded. If loading
+     * fails the old counts are kept.
+     *
+     * @throws SQLException
+     */
+    public synchronized void refresh() throws SQLException {
+        Generation previous = current;
+        Generation next = new Generation(previous.counters, true);
+        current = next;
+        try {
+            while (previous.hasCommitsInFlight()) {
+                LockSupport.parkNanos(DRAIN_WAIT_NANOS);
+            }
+            next.counters = load();
+        } finally {
+            next.loaded.countDown();
+        }
+        LOG.log(Level.INFO, "Aggregates loaded");
+    }
+
+    /**
+     * Return a sorted copy of the current counts for one category. Values
+     * whose count has dropped to zero are left out.
+     *
+     * @param category
+     * @return A map of column value to number of fish
+     */
+    public Map<String, Long> getCounts(final FishCategory category) {
+        Map<String, Long> snapshot = new TreeMap<>();
+        current.counters.get(category).forEach((value, adder) -> {
+            long count = adder.sum();
+            if (count > 0) {
+                snapshot.put(value, count);
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Return the number of fish with one value of a category
+     *
+     * @param category
+     * @param value
+     * @return The count, 0 if the value is not present
+     */
+    public long getCount(final FishCategory category, final String value) {
+        LongAdder adder = current.counters.get(category).get(value == null ? "" : value);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @Override
+    public void fishCreated(final FishData created) {
+        for (FishCategory category : FishCategory.values()) {
+            adderFor(category, category.valueOf(created)).increment();
+        }
+    }
+
+    @Override
+    public void fishUpdated(final FishData before, final FishData after) {
+        for (FishCategory category : FishCategory.values()) {
+            String oldValue = category.valueOf(before);
+            String newValue = category.valueOf(after);
+            if (!oldValue.equals(newValue)) {
+                adderFor(category, oldValue).decrement();
+                adderFor(category, newValue).increment();
+            }
+        }
+    }
+
+    @Override
+    public void fishDeleted(final FishData before) {
+        for (FishCategory category : FishCategory.values()) {
+            adderFor(category, category.valueOf(before)).decrement();
+        }
+    }
+
+    /**
+     * Stamp the commit that is starting on this thread with the current
+     * generation, waiting if its counts are still loading
+     */
+    @Override
+    public void beforeCommit() {
+        Generation generation = current;
+        generation.started.increment();
+        while (generation != current) {
+            // A refresh started a new generation before the stamp was counted
+            generation.finished.increment();
+            generation = current;
+            generation.started.increment();
+        }
+        generation.awaitLoaded();
+        stamped.set(generation);
+    }
+
+    @Override
+    public void afterCommit() {
+        Generation generation = stamped.get();
+        if (generation != null) {
+            stamped.remove();
+            generation.finished.increment();
+        }
+    }
+
+    /**
+     * Stop receiving notifications from the DAO
+     */
+    public void close() {
+        fishDAO.removeListener(this);
+    }
+
+    private Map<FishCategory, ConcurrentHashMap<String, LongAdder>> load() throws SQLException {
+        Map<FishCategory, ConcurrentHashMap<String, LongAdder>> loaded = emptyCounters();
+        for (FishCategory category : FishCategory.values()) {
+            ConcurrentHashMap<String, LongAdder> values = loaded.get(category);
+            fishDAO.countBy(category).forEach((value, count) -> {
+                values.computeIfAbsent(value == null ? "" : value, v -> new LongAdder()).add(count);
+            });
+        }
+        return loaded;
+    }
+
+    private static Map<FishCategory, ConcurrentHashMap<String, LongAdder>> emptyCounters() {
+        Map<FishCategory, ConcurrentHashMap<String, LongAdder>> empty = new EnumMap<>(FishCategory.class);
+        for (FishCategory category : FishCategory.values()) {
+            empty.put(category, new ConcurrentHashMap<>());
+        }
+        return empty;
+    }
+
+    /**
+     * A notification goes to the generation its commit was stamped with, or
+     * to the current one if it was sent outside of a commit
+     */
+    private LongAdder adderFor(final FishCategory category, final String value) {
+        Generation generation = stamped.get();
+        if (generation == null) {
+            generation = current;
+        }
+        return generation.counters.get(category).computeIfAbsent(value, v -> new LongAdder());
+    }
+
+    /**
+     * One set of counters and the commits stamped with it. The commit counts
+     * only grow so they can be compared without a lock.
+     */
+    private static final class Generation {
+
+        // The previous generation's counters until the new counts are loaded
+        volatile Map<FishCategory, ConcurrentHashMap<String, LongAdder>> counters;
+        final LongAdder started = new LongAdder();
+        final LongAdder finished = new LongAdder();
+        final CountDownLatch loaded;
+
+        Generation(Map<FishCategory, ConcurrentHashMap<String, LongAdder>> counters, boolean loading) {
+            this.counters = counters;
+            this.loaded = new CountDownLatch(loading ? 1 : 0);
+        }
+
+        /**
+         * finished is read before started so a commit that ends between the
+         * two reads can only make the generation look busier than it is
+         */
+        boolean hasCommitsInFlight() {
+            long done = finished.sum();
+            return started.sum() != done;
+        }
+
+        void awaitLoaded() {
+            boolean interrupted = false;
+            while (loaded.getCount() != 0) {
+                try {
+                    loaded.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
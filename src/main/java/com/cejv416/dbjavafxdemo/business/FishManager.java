@@ -1,9 +1,13 @@
 package com.cejv416.dbjavafxdemo.business;
 
+import com.cejv416.dbjavafxdemo.beans.FishCategory;
 import com.cejv416.dbjavafxdemo.beans.FishData;
 import com.cejv416.dbjavafxdemo.persistence.FishDAO;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -11,7 +15,7 @@ import java.util.logging.Logger;
  * Business class that uses the persistence layer to retrieve records
  *
  * @author Ken Fogel
- * @version 1.1
+ * @version 1.3
  *
  */
 public class FishManager {
@@ -20,12 +24,15 @@ public class FishManager {
     
 
     private final FishDAO fishDAO;
+    private final FishAggregateService aggregates;
+    private boolean aggregatesLoaded;
 
     /**
      * Constructor
      */
     public FishManager() {
         fishDAO = new FishDAO();
+        aggregates = new FishAggregateService(fishDAO);
     }
 
     /**
@@ -50,4 +57,71 @@ public class FishManager {
         }
         return sb.toString();
     }
+
+    /**
+     * This method returns the number of fish for each value of a category.
+     * The counts are loaded from the database the first time and are then
+     * kept current as records are changed through this manager's DAO.
+     *
+     * @param category
+     * @return A sorted map of value to count, empty if the counts could not be
+     * loaded
+     */
+    public Map<String, Long> retrieveBreakdown(FishCategory category) {
+        synchronized (aggregates) {
+            if (!aggregatesLoaded) {
+                try {
+                    aggregates.refresh();
+                    aggregatesLoaded = true;
+                } catch (SQLException e) {
+                    LOG.log(Level.SEVERE, "Error loading aggregates: ", e);
+                    return Collections.emptyMap();
+                }
+            }
+        }
+        return aggregates.getCounts(category);
+    }
+
+    /**
+     * This method reloads the counts from the database so that changes made
+     * by other programs are seen.
+     *
+     * @return true if the counts were reloaded
+     */
+    public boolean refreshBreakdowns() {
+        synchronized (aggregates) {
+            try {
+                aggregates.refresh();
+                aggregatesLoaded = true;
+                return true;
+            } catch (SQLException e) {
+                LOG.log(Level.SEVERE, "Error loading aggregates: ", e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Begin a unit of work that reads and writes in one transaction at the
+     * default REPEATABLE READ isolation of MySQL
+     *
+     * @return The session, it must be closed
+     * @throws SQLException
+     */
+    public FishSession openSession() throws SQLException {
+        return openSession(Connection.TRANSACTION_REPEATABLE_READ, false);
+    }
+
+    /**
+     * Begin a unit of work. Changes committed through the session are seen by
+     * the breakdowns.
+     *
+     * @param isolation One of the Connection.TRANSACTION_ constants
+     * @param readOnly true if the session will only read
+     * @return The session, it must be closed
+     * @throws SQLException
+     */
+    public FishSession openSession(int isolation, boolean readOnly) throws SQLException {
+        return new FishSession(fishDAO, isolation, readOnly);
+    }
 }
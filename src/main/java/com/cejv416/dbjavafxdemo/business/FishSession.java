@@ -0,0 +1,220 @@
+package com.cejv416.dbjavafxdemo.business;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.persistence.FishDAO;
+import com.cejv416.dbjavafxdemo.persistence.FishTransaction;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A unit of work. All the reads and writes of one business operation share a
+ * single connection and transaction so the operation pays for one connection
+ * and one commit and either all of it happens or none of it does.
+ *
+ * Writes are not sent when they are called. They are kept in order and sent
+ * when the session is committed, with each run of the same kind of write sent
+ * as one batch. Any waiting writes are also sent before a read so that the
+ * session always reads its own changes. A bean is written with the values it
+ * has when the writes are sent.
+ *
+ * If sending the writes fails the waiting writes are thrown away and the
+ * session refuses to commit until it has been rolled back, as part of a
+ * batch may already have been written.
+ *
+ * A read only session refuses writes and tells the driver that the
+ * transaction will not write.
+ *
+ * <pre>
+ * try (FishSession session = fishManager.openSession()) {
+ *     for (FishData fishData : session.findDiet("Carnivore")) {
+ *         fishData.setStocking("Pairs");
+ *         session.update(fishData);
+ *     }
+ *     session.create(newFish);
+ *     session.commit();
+ * }
+ * </pre>
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishSession implements AutoCloseable {
+
+    private enum Kind {
+        CREATE, UPDATE, DELETE
+    }
+
+    private record Write(Kind kind, FishData fishData, int id) {
+
+    }
+
+    private final FishTransaction transaction;
+    private final List<Write> pending = new ArrayList<>();
+    // Set when a flush fails, cleared by rollback
+    private boolean failed;
+
+    /**
+     * Constructor that begins the transaction
+     *
+     * @param fishDAO
+     * @param isolation One of the Connection.TRANSACTION_ constants
+     * @param readOnly true if the session will only read
+     * @throws SQLException
+     */
+    public FishSession(final FishDAO fishDAO, final int isolation, final boolean readOnly) throws SQLException {
+        transaction = fishDAO.beginTransaction(isolation, readOnly);
+    }
+
+    /**
+     * Retrieve all the records
+     *
+     * @return The List of FishData objects
+     * @throws SQLException
+     */
+    public List<FishData> findAll() throws SQLException {
+        flush();
+        return transaction.findAll();
+    }
+
+    /**
+     * Retrieve one record based on the primary key
+     *
+     * @param id
+     * @return The FishData object, an empty FishData if it is not found
+     * @throws SQLException
+     */
+    public FishData findID(final int id) throws SQLException {
+        flush();
+        return transaction.findID(id);
+    }
+
+    /**
+     * Retrieve the records for many primary keys
+     *
+     * @param ids
+     * @return A map of ID to FishData
+     * @throws SQLException
+     */
+    public Map<Integer, FishData> findIDs(final int[] ids) throws SQLException {
+        flush();
+        return transaction.findIDs(ids);
+    }
+
+    /**
+     * Retrieve all the records with the same value in the Diet column
+     *
+     * @param diet
+     * @return The List of FishData objects
+     * @throws SQLException
+     */
+    public List<FishData> findDiet(final String diet) throws SQLException {
+        flush();
+        return transaction.findDiet(diet);
+    }
+
+    /**
+     * Add a record when the session is committed. The ID is assigned to the
+     * bean when the write is sent.
+     *
+     * @param fishData
+     */
+    public void create(final FishData fishData) {
+        queue(new Write(Kind.CREATE, fishData, fishData.getId()));
+    }
+
+    /**
+     * Change a record when the session is committed
+     *
+     * @param fishData A bean with an existing ID
+     */
+    public void update(final FishData fishData) {
+        queue(new Write(Kind.UPDATE, fishData, fishData.getId()));
+    }
+
+    /**
+     * Remove a record when the session is committed
+     *
+     * @param id
+     */
+    public void delete(final int id) {
+        queue(new Write(Kind.DELETE, null, id));
+    }
+
+    /**
+     * Send the waiting writes and commit the transaction. The session can
+     * continue to be used for another unit of work.
+     *
+     * @throws SQLException
+     */
+    public void commit() throws SQLException {
+        if (failed) {
+            throw new SQLException("A write failed, the session must be rolled back");
+        }
+        flush();
+        transaction.commit();
+    }
+
+    /**
+     * Throw away the waiting writes and undo the writes already sent
+     *
+     * @throws SQLException
+     */
+    public void rollback() throws SQLException {
+        pending.clear();
+        failed = false;
+        transaction.rollback();
+    }
+
+    /**
+     * End the session. Anything that was not committed is lost.
+     *
+     * @throws SQLException
+     */
+    @Override
+    public void close() throws SQLException {
+        pending.clear();
+        transaction.close();
+    }
+
+    private void queue(final Write write) {
+        if (transaction.isReadOnly()) {
+            throw new IllegalStateException("The session is read only");
+        }
+        pending.add(write);
+    }
+
+    /**
+     * Send the waiting writes in order, each run of the same kind as a batch.
+     * On failure nothing is left waiting and the session is marked as failed.
+     */
+    private void flush() throws SQLException {
+        boolean sent = false;
+        try {
+            while (!pending.isEmpty()) {
+                Kind kind = pending.get(0).kind();
+                int end = 1;
+                while (end < pending.size() && pending.get(end).kind() == kind) {
+                    ++end;
+                }
+                List<Write> run = pending.subList(0, end);
+                switch (kind) {
+                    case CREATE ->
+                        transaction.create(run.stream().map(Write::fishData).toList());
+                    case UPDATE ->
+                        transaction.update(run.stream().map(Write::fishData).toList());
+                    case DELETE ->
+                        transaction.delete(run.stream().mapToInt(Write::id).toArray());
+                }
+                run.clear();
+            }
+            sent = true;
+        } finally {
+            if (!sent) {
+                pending.clear();
+                failed = true;
+            }
+        }
+    }
+}
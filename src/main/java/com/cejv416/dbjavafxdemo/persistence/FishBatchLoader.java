@@ -0,0 +1,124 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects single ID lookups and answers them together. The first request
+ * starts a short window and every ID requested during the window is read with
+ * one call to FishDAO.findIDs when the window ends or when enough IDs have
+ * been collected. Code that looks up fish one at a time, possibly from
+ * different threads, no longer pays for a connection and a query per fish.
+ *
+ * As with FishDAO.findID an ID that is not found is answered with an empty
+ * FishData and not null.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishBatchLoader implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(FishBatchLoader.class.getName());
+
+    private final FishDAO fishDAO;
+    private final long windowMillis;
+    private final int maxBatch;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by this
+    private Map<Integer, CompletableFuture<FishData>> pending = new HashMap<>();
+    private boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param fishDAO The DAO that will run the queries
+     * @param windowMillis How long to wait for more IDs after the first
+     * @param maxBatch The number of IDs that ends a window early
+     */
+    public FishBatchLoader(final FishDAO fishDAO, final long windowMillis, final int maxBatch) {
+        this.fishDAO = fishDAO;
+        this.windowMillis = windowMillis;
+        this.maxBatch = maxBatch;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "FishBatchLoader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Request one fish. The same ID requested more than once in a window
+     * shares one result.
+     *
+     * @param id
+     * @return A future that is completed when the batch has been read
+     */
+    public CompletableFuture<FishData> load(final int id) {
+        CompletableFuture<FishData> future;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("FishBatchLoader is closed");
+            }
+            future = pending.get(id);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(id, future);
+            if (pending.size() >= maxBatch) {
+                scheduler.execute(this::dispatch);
+            } else if (pending.size() == 1) {
+                scheduler.schedule(this::dispatch, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Read all the IDs that are waiting. A window that was ended early by
+     * maxBatch will still have its timer run but finds nothing to do, or the
+     * start of the next window, which is then read a little early.
+     *
+     * Nothing may be thrown from here. The scheduler would keep the exception
+     * to itself and the futures of the batch would never be completed.
+     */
+    private void dispatch() {
+        Map<Integer, CompletableFuture<FishData>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        int[] ids = batch.keySet().stream().mapToInt(Integer::intValue).toArray();
+        try {
+            Map<Integer, FishData> found = fishDAO.findIDs(ids);
+            batch.forEach((id, future) -> future.complete(found.getOrDefault(id, new FishData())));
+        } catch (SQLException | RuntimeException | Error e) {
+            LOG.log(Level.SEVERE, "Error loading batch: ", e);
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Read any IDs that are still waiting and stop the timer thread
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        scheduler.execute(this::dispatch);
+        scheduler.shutdown();
+    }
+}
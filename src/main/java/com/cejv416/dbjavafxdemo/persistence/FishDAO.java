@@ -6,11 +6,13 @@
  * Eliminated returning null references
  *
  * @author Ken Fogel
- * @version 1.8
+ * @version 1.9
  */
 package com.cejv416.dbjavafxdemo.persistence;
 
+import com.cejv416.dbjavafxdemo.beans.FishCategory;
 import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.beans.ImmutableFishData;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -18,7 +20,17 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,6 +44,10 @@ import java.util.logging.Logger;
  * Updated by creating a new method createFishData that used the resultSet to
  * create an object. Originally this code was repeated three times.
  *
+ * Replaced createFishData with FishRowMapper so that the column indexes are
+ * found once per ResultSet instead of looking up every column by name on every
+ * row.
+ *
  */
 public class FishDAO {
 
@@ -39,10 +55,123 @@ public class FishDAO {
 
 
     // This information should be coming from a Properties file
-    private final static String URL = "jdbc:mysql://localhost:3306/AQUARIUM?autoReconnect=true&useSSL=false&allowPublicKeyRetrieval=true";
+    private final static String URL = "jdbc:mysql://localhost:3306/AQUARIUM?autoReconnect=true&useSSL=false&allowPublicKeyRetrieval=true"
+            // Skip round trips when setting auto commit, isolation or read only
+            // to the value the connection already has
+            + "&useLocalSessionState=true"
+            // Send a batch of INSERTs as one multi-row INSERT
+            + "&rewriteBatchedStatements=true";
     private final static String USER = "fish";
     private final static String PASSWORD = "kfstandard";
 
+    // The statements used by this DAO and by FishTransaction
+    final static String SELECT_ALL = "SELECT ID, COMMONNAME, LATIN, PH, KH, TEMP, FISHSIZE, SPECIESORIGIN, TANKSIZE, STOCKING, DIET FROM FISH";
+    final static String SELECT_BY_ID = SELECT_ALL + " WHERE ID = ?";
+    final static String SELECT_BY_DIET = SELECT_ALL + " WHERE DIET = ?";
+    final static String INSERT = "INSERT INTO FISH (COMMONNAME, LATIN, PH, KH, TEMP, FISHSIZE, SPECIESORIGIN, TANKSIZE, STOCKING, DIET) VALUES (?,?,?,?,?,?,?,?,?,?)";
+    final static String UPDATE = "UPDATE FISH SET COMMONNAME=?, LATIN=?, PH=?, KH=?, TEMP=?, FISHSIZE=?, SPECIESORIGIN=?, TANKSIZE=?, STOCKING=?, DIET=? WHERE ID = ?";
+    final static String DELETE = "DELETE FROM FISH WHERE ID = ?";
+
+    // The largest number of IDs in one IN list
+    private final static int MAX_CHUNK = 256;
+    // The most connections used at the same time by findIDs
+    private final static int MAX_PARALLEL = 4;
+    // Without a connection pool each extra connection costs a connect and a
+    // login, so findIDs only spreads the IN lists over several connections
+    // when each one has at least 4 lists to read
+    private final static int PARALLEL_CHUNKS = 4 * MAX_PARALLEL;
+    // IN lists are padded to a power of two so that there are only a few
+    // different queries and each can be prepared once per connection
+    private final static String[] IN_QUERIES = createInQueries("");
+    // The same queries locking the rows they read until the transaction ends
+    private final static String[] IN_QUERIES_FOR_UPDATE = createInQueries(" FOR UPDATE");
+
+    // Threads for findIDs are shared by every FishDAO and do not keep the
+    // program running
+    private final static ExecutorService LOOKUP_POOL = Executors.newFixedThreadPool(MAX_PARALLEL, r -> {
+        Thread thread = new Thread(r, "FishDAO-lookup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Listeners are rarely added but are read on every write
+    private final List<FishDAOListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Set when statements should be timed, read by every method
+    private volatile SlowQueryLog slowQueryLog;
+
+    /**
+     * Time every statement run by this DAO and record the slow ones in the
+     * log. Pass null to stop timing.
+     *
+     * @param slowQueryLog
+     */
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Private method that opens a connection for one operation. When there is
+     * a slow query log the connection is wrapped by it.
+     *
+     * @return The connection
+     * @throws SQLException
+     */
+    private Connection getConnection() throws SQLException {
+        Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        SlowQueryLog log = slowQueryLog;
+        return log == null ? connection : log.wrap(connection);
+    }
+
+    /**
+     * Register a listener that is told about every successful create, update
+     * and delete performed through this DAO
+     *
+     * @param listener
+     */
+    public void addListener(FishDAOListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stop sending change notifications to a listener
+     *
+     * @param listener
+     */
+    public void removeListener(FishDAOListener listener) {
+        listeners.remove(listener);
+    }
+
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    void fireCreated(FishData created) {
+        listeners.forEach(listener -> listener.fishCreated(created));
+    }
+
+    void fireUpdated(FishData before, FishData after) {
+        listeners.forEach(listener -> listener.fishUpdated(before, after));
+    }
+
+    void fireDeleted(FishData before) {
+        listeners.forEach(listener -> listener.fishDeleted(before));
+    }
+
+    /**
+     * Begin a transaction on a connection of its own. Everything done through
+     * the transaction is committed or rolled back together and listeners are
+     * only told about changes once they are committed.
+     *
+     * @param isolation One of the Connection.TRANSACTION_ constants
+     * @param readOnly true if the transaction will not write
+     * @return The transaction, it must be closed
+     * @throws SQLException
+     */
+    public FishTransaction beginTransaction(int isolation, boolean readOnly) throws SQLException {
+        return new FishTransaction(this, getConnection(), isolation, readOnly);
+    }
+
     /**
      * Retrieve all the records for the given table and returns the data as an
      * ArrayList of FishData objects
@@ -54,25 +183,78 @@ public class FishDAO {
 
         List<FishData> rows = new ArrayList<>();
 
-        String selectQuery = "SELECT ID, COMMONNAME, LATIN, PH, KH, TEMP, FISHSIZE, SPECIESORIGIN, TANKSIZE, STOCKING, DIET FROM FISH";
+        String selectQuery = SELECT_ALL;
 
         // Using try with resources
         // This ensures that the objects in the parenthesis () will be closed
         // when block ends. In this case the Connection, PreparedStatement and
         // the ResultSet will all be closed.
-        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Connection connection = getConnection();
                 // You must use PreparedStatements to guard against SQL
                 // Injection
                 PreparedStatement pStatement = connection.prepareStatement(selectQuery);
                 ResultSet resultSet = pStatement.executeQuery()) {
+            FishRowMapper mapper = new FishRowMapper(resultSet);
+            while (resultSet.next()) {
+                rows.add(mapper.toFishData(resultSet));
+            }
+        }
+        LOG.log(Level.INFO, "# of records found : {0}", rows.size());
+        return rows;
+    }
+
+    /**
+     * Retrieve all the records for the given table and returns the data as a
+     * List of ImmutableFishData objects that may be shared between threads
+     *
+     * @return The List of ImmutableFishData objects
+     * @throws java.sql.SQLException
+     */
+    public List<ImmutableFishData> findAllImmutable() throws SQLException {
+
+        List<ImmutableFishData> rows = new ArrayList<>();
+
+        String selectQuery = SELECT_ALL;
+
+        try (Connection connection = getConnection();
+                PreparedStatement pStatement = connection.prepareStatement(selectQuery);
+                ResultSet resultSet = pStatement.executeQuery()) {
+            FishRowMapper mapper = new FishRowMapper(resultSet);
             while (resultSet.next()) {
-                rows.add(createFishData(resultSet));
+                rows.add(mapper.toImmutableFishData(resultSet));
             }
         }
         LOG.log(Level.INFO, "# of records found : {0}", rows.size());
         return rows;
     }
 
+    /**
+     * Copy all the records for the given table into an off heap store without
+     * creating a FishData object for each record
+     *
+     * @param store The store to add the records to
+     * @return The number of records loaded
+     * @throws java.sql.SQLException
+     */
+    public int loadAll(FishRowStore store) throws SQLException {
+
+        int count;
+
+        String selectQuery = SELECT_ALL;
+
+        try (Connection connection = getConnection();
+                PreparedStatement pStatement = connection.prepareStatement(selectQuery, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);) {
+            // Tells MySQL Connector/J to stream the rows one at a time rather
+            // than reading the whole table into the heap first
+            pStatement.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet resultSet = pStatement.executeQuery()) {
+                count = store.load(resultSet);
+            }
+        }
+        LOG.log(Level.INFO, "# of records loaded : {0}", count);
+        return count;
+    }
+
     /**
      * Retrieve one record from the given table based on the primary key
      *
@@ -84,12 +266,12 @@ public class FishDAO {
 
         FishData fishData = new FishData();
 
-        String selectQuery = "SELECT ID, COMMONNAME, LATIN, PH, KH, TEMP, FISHSIZE, SPECIESORIGIN, TANKSIZE, STOCKING, DIET FROM FISH WHERE ID = ?";
+        String selectQuery = SELECT_BY_ID;
 
         // Using try with resources
         // Class that implement the Closable interface created in the
         // parenthesis () will be closed when the block ends.
-        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Connection connection = getConnection();
                 // You must use PreparedStatements to guard against SQL
                 // Injection
                 PreparedStatement pStatement = connection.prepareStatement(selectQuery);) {
@@ -100,7 +282,7 @@ public class FishDAO {
             // begins
             try (ResultSet resultSet = pStatement.executeQuery()) {
                 if (resultSet.next()) {
-                    fishData = createFishData(resultSet);
+                    fishData = new FishRowMapper(resultSet).toFishData(resultSet);
                 }
             }
         }
@@ -108,6 +290,164 @@ public class FishDAO {
         return fishData;
     }
 
+    /**
+     * Retrieve the records for many primary keys with as few queries as
+     * possible. The IDs are split into IN lists of at most 256 that are run
+     * one after another on a single connection, which prepares each query
+     * shape once and reuses it for the rest of the lists. Only when there
+     * are 16 or more lists, over 3840 IDs, are they shared out over 4
+     * connections that run at the same time.
+     *
+     * @param ids The IDs to find, duplicates are ignored
+     * @return A map of ID to FishData. IDs that are not in the table are not
+     * in the map.
+     * @throws java.sql.SQLException
+     */
+    public Map<Integer, FishData> findIDs(int[] ids) throws SQLException {
+
+        int[] distinct = Arrays.stream(ids).distinct().toArray();
+        int chunks = (distinct.length + MAX_CHUNK - 1) / MAX_CHUNK;
+        Map<Integer, FishData> found = new HashMap<>();
+
+        if (chunks < PARALLEL_CHUNKS) {
+            findChunks(distinct, 0, chunks, 1, found);
+        } else {
+            // Worker w reads chunks w, w + workers, w + 2 * workers ...
+            int workers = Math.min(chunks, MAX_PARALLEL);
+            List<Callable<Map<Integer, FishData>>> tasks = new ArrayList<>();
+            for (int w = 0; w < workers; ++w) {
+                final int first = w;
+                tasks.add(() -> {
+                    Map<Integer, FishData> part = new HashMap<>();
+                    findChunks(distinct, first, chunks, workers, part);
+                    return part;
+                });
+            }
+            try {
+                for (Future<Map<Integer, FishData>> future : LOOKUP_POOL.invokeAll(tasks)) {
+                    found.putAll(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while finding IDs", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException sqle) {
+                    throw sqle;
+                }
+                throw new SQLException("Error finding IDs", e.getCause());
+            }
+        }
+        LOG.log(Level.INFO, "Found {0} of {1} IDs in {2} queries", new Object[]{found.size(), distinct.length, chunks});
+        return found;
+    }
+
+    /**
+     * Read the records for many primary keys on a connection that is already
+     * open, one IN list after another
+     *
+     * @param statements The statements of the open connection
+     * @param ids The IDs to find, there must be no duplicates
+     * @return A map of ID to FishData
+     * @throws SQLException
+     */
+    Map<Integer, FishData> findIDs(StatementCache statements, int[] ids) throws SQLException {
+        return findIDs(statements, ids, IN_QUERIES);
+    }
+
+    /**
+     * Read and lock the records for many primary keys in the transaction of an
+     * open connection. Another writer cannot change the records until the
+     * transaction ends.
+     *
+     * @param statements The statements of a connection with auto commit off
+     * @param ids The IDs to find, there must be no duplicates
+     * @return A map of ID to FishData
+     * @throws SQLException
+     */
+    Map<Integer, FishData> findIDsForUpdate(StatementCache statements, int[] ids) throws SQLException {
+        return findIDs(statements, ids, IN_QUERIES_FOR_UPDATE);
+    }
+
+    private Map<Integer, FishData> findIDs(StatementCache statements, int[] ids, String[] queries) throws SQLException {
+        Map<Integer, FishData> found = new HashMap<>();
+        for (int from = 0; from < ids.length; from += MAX_CHUNK) {
+            findChunk(statements, queries, ids, from, Math.min(from + MAX_CHUNK, ids.length), found);
+        }
+        return found;
+    }
+
+    /**
+     * Private method that reads every step'th chunk of IDs starting at first on
+     * one connection
+     *
+     * @param ids
+     * @param first
+     * @param chunks
+     * @param step
+     * @param found
+     * @throws SQLException
+     */
+    private void findChunks(int[] ids, int first, int chunks, int step, Map<Integer, FishData> found) throws SQLException {
+        if (first >= chunks) {
+            return;
+        }
+        try (Connection connection = getConnection();
+                StatementCache statements = new StatementCache(connection)) {
+            for (int chunk = first; chunk < chunks; chunk += step) {
+                int from = chunk * MAX_CHUNK;
+                int to = Math.min(from + MAX_CHUNK, ids.length);
+                findChunk(statements, IN_QUERIES, ids, from, to, found);
+            }
+        }
+    }
+
+    /**
+     * Private method that reads the IDs from index from to index to with a
+     * single query. The list is padded by repeating the last ID.
+     *
+     * @param statements
+     * @param queries IN_QUERIES or IN_QUERIES_FOR_UPDATE
+     * @param ids
+     * @param from
+     * @param to
+     * @param found
+     * @throws SQLException
+     */
+    private void findChunk(StatementCache statements, String[] queries, int[] ids, int from, int to, Map<Integer, FishData> found) throws SQLException {
+        int size = Integer.highestOneBit(to - from - 1) << 1;
+        size = Math.max(size, 1);
+        PreparedStatement pStatement = statements.prepare(queries[Integer.numberOfTrailingZeros(size)]);
+        for (int i = 0; i < size; ++i) {
+            pStatement.setInt(i + 1, ids[Math.min(from + i, to - 1)]);
+        }
+        try (ResultSet resultSet = pStatement.executeQuery()) {
+            FishRowMapper mapper = new FishRowMapper(resultSet);
+            while (resultSet.next()) {
+                FishData fishData = mapper.toFishData(resultSet);
+                found.put(fishData.getId(), fishData);
+            }
+        }
+    }
+
+    /**
+     * Private method that creates the SELECT ... IN queries for lists of 1, 2,
+     * 4 ... MAX_CHUNK parameters
+     *
+     * @param suffix Added to the end of each query
+     * @return The queries indexed by the power of two of their list size
+     */
+    private static String[] createInQueries(String suffix) {
+        String[] queries = new String[Integer.numberOfTrailingZeros(MAX_CHUNK) + 1];
+        for (int i = 0; i < queries.length; ++i) {
+            StringBuilder sb = new StringBuilder(SELECT_ALL).append(" WHERE ID IN (?");
+            for (int p = 1; p < (1 << i); ++p) {
+                sb.append(",?");
+            }
+            queries[i] = sb.append(')').append(suffix).toString();
+        }
+        return queries;
+    }
+
     /**
      * Retrieve all the records from the given table that share the same value
      * in the Diet column and returns the data as an ArrayList of FishData
@@ -121,12 +461,12 @@ public class FishDAO {
 
         List<FishData> rows = new ArrayList<>();
 
-        String selectQuery = "SELECT ID, COMMONNAME, LATIN, PH, KH, TEMP, FISHSIZE, SPECIESORIGIN, TANKSIZE, STOCKING, DIET FROM FISH WHERE DIET = ?";
+        String selectQuery = SELECT_BY_DIET;
 
         // Using try with resources
         // Class that implement the Closable interface created in the
         // parenthesis () will be closed when the block ends.
-        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Connection connection = getConnection();
                 // You must use PreparedStatements to guard against SQL
                 // Injection
                 PreparedStatement pStatement = connection.prepareStatement(selectQuery);) {
@@ -136,8 +476,9 @@ public class FishDAO {
             // A new try-with-resources block begins for creating the ResultSet
             // object
             try (ResultSet resultSet = pStatement.executeQuery()) {
+                FishRowMapper mapper = new FishRowMapper(resultSet);
                 while (resultSet.next()) {
-                    rows.add(createFishData(resultSet));
+                    rows.add(mapper.toFishData(resultSet));
                 }
             }
         }
@@ -146,27 +487,97 @@ public class FishDAO {
     }
 
     /**
-     * Private method that creates an object of type FishData from the current
-     * record in the ResultSet
+     * Count the records in each distinct value of a category column. The
+     * grouping is done by the database so only one row per value is
+     * transferred rather than the whole table.
      *
-     * @param resultSet
-     * @return
+     * @param category The column to group by
+     * @return A map of column value to the number of records with that value
+     * @throws java.sql.SQLException
+     */
+    public Map<String, Long> countBy(FishCategory category) throws SQLException {
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+
+        // The column name comes from the enum and not from the user
+        String selectQuery = "SELECT " + category.getColumn() + ", COUNT(*) FROM FISH GROUP BY " + category.getColumn();
+
+        try (Connection connection = getConnection();
+                PreparedStatement pStatement = connection.prepareStatement(selectQuery);
+                ResultSet resultSet = pStatement.executeQuery()) {
+            while (resultSet.next()) {
+                counts.put(resultSet.getString(1), resultSet.getLong(2));
+            }
+        }
+        LOG.log(Level.INFO, "# of {0} groups found : {1}", new Object[]{category, counts.size()});
+        return counts;
+    }
+
+    /**
+     * Private method that reads the current state of a record in the
+     * transaction that is about to change it. This is used to tell listeners
+     * what a record looked like before it was changed. The row is locked until
+     * the transaction ends so another writer cannot change it between this
+     * read and the write.
+     *
+     * @param connection A connection with auto commit off
+     * @param id
+     * @return The record or null if there is no record with this ID
      * @throws SQLException
      */
-    private FishData createFishData(ResultSet resultSet) throws SQLException {
-        FishData fishData = new FishData();
-        fishData.setCommonName(resultSet.getString("COMMONNAME"));
-        fishData.setDiet(resultSet.getString("DIET"));
-        fishData.setKh(resultSet.getString("KH"));
-        fishData.setLatin(resultSet.getString("LATIN"));
-        fishData.setPh(resultSet.getString("PH"));
-        fishData.setFishSize(resultSet.getString("FISHSIZE"));
-        fishData.setSpeciesOrigin(resultSet.getString("SPECIESORIGIN"));
-        fishData.setStocking(resultSet.getString("STOCKING"));
-        fishData.setTankSize(resultSet.getString("TANKSIZE"));
-        fishData.setTemp(resultSet.getString("TEMP"));
-        fishData.setId(resultSet.getInt("ID"));
-        return fishData;
+    private FishData findBefore(Connection connection, int id) throws SQLException {
+        String selectQuery = SELECT_BY_ID + " FOR UPDATE";
+        try (PreparedStatement pStatement = connection.prepareStatement(selectQuery);) {
+            pStatement.setInt(1, id);
+            try (ResultSet resultSet = pStatement.executeQuery()) {
+                return resultSet.next() ? new FishRowMapper(resultSet).toFishData(resultSet) : null;
+            }
+        }
+    }
+
+    /**
+     * Commit the changes made with auto commit off and then tell the
+     * listeners about them. The commit is bracketed by beforeCommit and
+     * afterCommit so that a listener can tell these changes apart from the
+     * ones that a reload of its data already includes. Used by this DAO and
+     * by FishTransaction.
+     *
+     * @param connection
+     * @param notifications Calls the fire methods for the changes, null if
+     * nothing was changed
+     * @throws SQLException
+     */
+    void commitAndNotify(Connection connection, Runnable notifications) throws SQLException {
+        List<FishDAOListener> current = List.copyOf(listeners);
+        current.forEach(FishDAOListener::beforeCommit);
+        try {
+            connection.commit();
+            if (notifications != null) {
+                notifications.run();
+            }
+        } finally {
+            current.forEach(FishDAOListener::afterCommit);
+        }
+    }
+
+    /**
+     * Set the ten column parameters shared by the INSERT and UPDATE statements
+     *
+     * @param ps
+     * @param fishData
+     * @throws SQLException
+     */
+    static void bindColumns(PreparedStatement ps, FishData fishData) throws SQLException {
+        ps.setString(1, fishData.getCommonName());
+        ps.setString(2, fishData.getLatin());
+        ps.setString(3, fishData.getPh());
+        ps.setString(4, fishData.getKh());
+        ps.setString(5, fishData.getTemp());
+        ps.setString(6, fishData.getFishSize());
+        ps.setString(7, fishData.getSpeciesOrigin());
+        ps.setString(8, fishData.getTankSize());
+        ps.setString(9, fishData.getStocking());
+        ps.setString(10, fishData.getDiet());
     }
 
     /**
@@ -181,24 +592,19 @@ public class FishDAO {
     public int create(FishData fishData) throws SQLException {
 
         int result;
-        String createQuery = "INSERT INTO FISH (COMMONNAME, LATIN, PH, KH, TEMP, FISHSIZE, SPECIESORIGIN, TANKSIZE, STOCKING, DIET) VALUES (?,?,?,?,?,?,?,?,?,?)";
+        String createQuery = INSERT;
 
         // Connection is only open for the operation and then immediately closed
-        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Connection connection = getConnection();
                 // Using a prepared statement to handle the conversion
                 // of special characters in the SQL statement and guard against
                 // SQL Injection
                 PreparedStatement ps = connection.prepareStatement(createQuery, Statement.RETURN_GENERATED_KEYS);) {
-            ps.setString(1, fishData.getCommonName());
-            ps.setString(2, fishData.getLatin());
-            ps.setString(3, fishData.getPh());
-            ps.setString(4, fishData.getKh());
-            ps.setString(5, fishData.getTemp());
-            ps.setString(6, fishData.getFishSize());
-            ps.setString(7, fishData.getSpeciesOrigin());
-            ps.setString(8, fishData.getTankSize());
-            ps.setString(9, fishData.getStocking());
-            ps.setString(10, fishData.getDiet());
+            // When there are listeners the change is committed by
+            // commitAndNotify so that they can be told about it in order
+            boolean notify = !listeners.isEmpty();
+            connection.setAutoCommit(!notify);
+            bindColumns(ps, fishData);
 
             result = ps.executeUpdate();
             
@@ -211,6 +617,9 @@ public class FishDAO {
                 fishData.setId(recordNum);
                 LOG.log(Level.FINEST, "New record ID is {0}", recordNum);
             }
+            if (notify) {
+                commitAndNotify(connection, result > 0 ? () -> fireCreated(fishData) : null);
+            }
         }
         LOG.log(Level.INFO, "# of records created : {0}", result);
         return result;
@@ -232,15 +641,23 @@ public class FishDAO {
 
         int result;
 
-        String deleteQuery = "DELETE FROM FISH WHERE ID = ?";
+        String deleteQuery = DELETE;
 
         // Connection is only open for the operation and then immediately closed
-        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Connection connection = getConnection();
                 // You must use PreparedStatements to guard against SQL
                 // Injection
                 PreparedStatement ps = connection.prepareStatement(deleteQuery);) {
+            // When there are listeners the record is locked and read, deleted
+            // and committed in one transaction
+            boolean notify = !listeners.isEmpty();
+            connection.setAutoCommit(!notify);
+            FishData before = notify ? findBefore(connection, id) : null;
             ps.setInt(1, id);
             result = ps.executeUpdate();
+            if (notify) {
+                commitAndNotify(connection, result > 0 && before != null ? () -> fireDeleted(before) : null);
+            }
         }
         LOG.log(Level.INFO, "# of records deleted : {0}", result);
         return result;
@@ -260,26 +677,26 @@ public class FishDAO {
 
         int result;
 
-        String updateQuery = "UPDATE FISH SET COMMONNAME=?, LATIN=?, PH=?, KH=?, TEMP=?, FISHSIZE=?, SPECIESORIGIN=?, TANKSIZE=?, STOCKING=?, DIET=? WHERE ID = ?";
+        String updateQuery = UPDATE;
 
         // Connection is only open for the operation and then immediately closed
-        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Connection connection = getConnection();
                 // You must use a prepared statement to handle the conversion
                 // of special characters in the SQL statement and guard against
                 // SQL Injection
                 PreparedStatement ps = connection.prepareStatement(updateQuery);) {
-            ps.setString(1, fishData.getCommonName());
-            ps.setString(2, fishData.getLatin());
-            ps.setString(3, fishData.getPh());
-            ps.setString(4, fishData.getKh());
-            ps.setString(5, fishData.getTemp());
-            ps.setString(6, fishData.getFishSize());
-            ps.setString(7, fishData.getSpeciesOrigin());
-            ps.setString(8, fishData.getTankSize());
-            ps.setString(9, fishData.getStocking());
-            ps.setString(10, fishData.getDiet());
+            // When there are listeners the record is locked and read, updated
+            // and committed in one transaction
+            boolean notify = !listeners.isEmpty();
+            connection.setAutoCommit(!notify);
+            FishData before = notify ? findBefore(connection, fishData.getId()) : null;
+            bindColumns(ps, fishData);
+            ps.setInt(11, fishData.getId());
 
             result = ps.executeUpdate();
+            if (notify) {
+                commitAndNotify(connection, result > 0 && before != null ? () -> fireUpdated(before, fishData) : null);
+            }
         }
         LOG.log(Level.INFO, "# of records updated : {0}", result);
         return result;
@@ -0,0 +1,54 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+
+/**
+ * Receives a notification after FishDAO has successfully changed a record.
+ * Listeners are called on the thread that performed the change so they must
+ * be quick and thread safe.
+ *
+ * Every commit of a change is bracketed by beforeCommit and afterCommit on the
+ * writing thread. A listener that reloads its data from the table can use them
+ * to tell whether a notification is for a change its reload already includes.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public interface FishDAOListener {
+
+    /**
+     * A record was added to the table
+     *
+     * @param created The bean with its newly assigned ID
+     */
+    void fishCreated(FishData created);
+
+    /**
+     * A record was changed
+     *
+     * @param before The record as it was before the update
+     * @param after The record as it is now
+     */
+    void fishUpdated(FishData before, FishData after);
+
+    /**
+     * A record was removed from the table
+     *
+     * @param before The record as it was before the delete
+     */
+    void fishDeleted(FishData before);
+
+    /**
+     * Changes are about to be committed. The notifications of the changes, if
+     * the commit succeeds, and then afterCommit follow on the same thread.
+     */
+    default void beforeCommit() {
+    }
+
+    /**
+     * The commit that beforeCommit announced has finished, whether or not it
+     * succeeded
+     */
+    default void afterCommit() {
+    }
+}
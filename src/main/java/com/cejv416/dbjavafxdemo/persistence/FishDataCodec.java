@@ -0,0 +1,318 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary format for FishData that can be written to a file, sent to
+ * another process or stored in a cache and read back.
+ *
+ * A row is the ID as a zig-zag varint followed by the ten strings in column
+ * order. Each string starts with a varint tag:
+ * <ul>
+ * <li>0 is a null string
+ * <li>an even tag is a literal, (length + 1) * 2, followed by the UTF-8 bytes
+ * <li>an odd tag is a dictionary reference, index * 2 + 1
+ * </ul>
+ *
+ * A block is a varint row count, a varint flag that is 1 when the dictionary
+ * is used and then the rows. With the dictionary each distinct value of the
+ * columns that repeat, such as DIET and STOCKING, is written once per block and
+ * later rows refer back to it. COMMONNAME and LATIN are almost always unique so
+ * they are always literals. A single row never uses the dictionary.
+ *
+ * Everything is read from and written to the ByteBuffer directly. A
+ * BufferOverflowException is thrown if the buffer is too small, use
+ * maxEncodedSize or maxBlockSize to allocate a buffer that is large enough.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public final class FishDataCodec {
+
+    // Worst case length of a varint holding an int
+    private static final int MAX_VARINT = 5;
+    // A char is at most 3 bytes in UTF-8, a surrogate pair is 4 bytes for 2 chars
+    private static final int MAX_UTF8_PER_CHAR = 3;
+    private static final int STRING_FIELDS = 10;
+
+    private FishDataCodec() {
+    }
+
+    /**
+     * Write one row without a dictionary
+     *
+     * @param fishData
+     * @param buffer The row is written at the position of the buffer
+     */
+    public static void encode(FishData fishData, ByteBuffer buffer) {
+        encodeRow(fishData, buffer, null);
+    }
+
+    /**
+     * Read one row written by encode
+     *
+     * @param buffer The row is read from the position of the buffer
+     * @return The FishData object
+     */
+    public static FishData decode(ByteBuffer buffer) {
+        return decodeRow(buffer, null);
+    }
+
+    /**
+     * Write a block of rows
+     *
+     * @param rows
+     * @param buffer The block is written at the position of the buffer
+     * @param useDictionary true to write repeated column values once
+     */
+    public static void encodeBlock(List<FishData> rows, ByteBuffer buffer, boolean useDictionary) {
+        writeVarint(buffer, rows.size());
+        writeVarint(buffer, useDictionary ? 1 : 0);
+        Map<String, Integer> dictionary = useDictionary ? new HashMap<>() : null;
+        for (FishData fishData : rows) {
+            encodeRow(fishData, buffer, dictionary);
+        }
+    }
+
+    /**
+     * Read a block written by encodeBlock
+     *
+     * @param buffer The block is read from the position of the buffer
+     * @return The rows in the order they were written
+     */
+    public static List<FishData> decodeBlock(ByteBuffer buffer) {
+        int count = readVarint(buffer);
+        List<String> dictionary = readVarint(buffer) == 1 ? new ArrayList<>() : null;
+        List<FishData> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            rows.add(decodeRow(buffer, dictionary));
+        }
+        return rows;
+    }
+
+    /**
+     * The largest number of bytes that encode can write for this row
+     *
+     * @param fishData
+     * @return The number of bytes
+     */
+    public static int maxEncodedSize(FishData fishData) {
+        return MAX_VARINT + STRING_FIELDS * MAX_VARINT
+                + MAX_UTF8_PER_CHAR * (length(fishData.getCommonName()) + length(fishData.getLatin())
+                + length(fishData.getPh()) + length(fishData.getKh()) + length(fishData.getTemp())
+                + length(fishData.getFishSize()) + length(fishData.getSpeciesOrigin())
+                + length(fishData.getTankSize()) + length(fishData.getStocking()) + length(fishData.getDiet()));
+    }
+
+    /**
+     * The largest number of bytes that encodeBlock can write for these rows
+     *
+     * @param rows
+     * @return The number of bytes
+     */
+    public static int maxBlockSize(List<FishData> rows) {
+        int size = 2 * MAX_VARINT;
+        for (FishData fishData : rows) {
+            size += maxEncodedSize(fishData);
+        }
+        return size;
+    }
+
+    private static void encodeRow(FishData fishData, ByteBuffer buffer, Map<String, Integer> dictionary) {
+        int id = fishData.getId();
+        writeVarint(buffer, (id << 1) ^ (id >> 31));
+        writeString(buffer, fishData.getCommonName(), null);
+        writeString(buffer, fishData.getLatin(), null);
+        writeString(buffer, fishData.getPh(), dictionary);
+        writeString(buffer, fishData.getKh(), dictionary);
+        writeString(buffer, fishData.getTemp(), dictionary);
+        writeString(buffer, fishData.getFishSize(), dictionary);
+        writeString(buffer, fishData.getSpeciesOrigin(), dictionary);
+        writeString(buffer, fishData.getTankSize(), dictionary);
+        writeString(buffer, fishData.getStocking(), dictionary);
+        writeString(buffer, fishData.getDiet(), dictionary);
+    }
+
+    private static FishData decodeRow(ByteBuffer buffer, List<String> dictionary) {
+        int zigzag = readVarint(buffer);
+        int id = (zigzag >>> 1) ^ -(zigzag & 1);
+        // Arguments are evaluated left to right so the columns are read in order
+        return new FishData(id,
+                readString(buffer, null),
+                readString(buffer, null),
+                readString(buffer, dictionary),
+                readString(buffer, dictionary),
+                readString(buffer, dictionary),
+                readString(buffer, dictionary),
+                readString(buffer, dictionary),
+                readString(buffer, dictionary),
+                readString(buffer, dictionary),
+                readString(buffer, dictionary));
+    }
+
+    private static void writeString(ByteBuffer buffer, String s, Map<String, Integer> dictionary) {
+        if (s == null) {
+            writeVarint(buffer, 0);
+            return;
+        }
+        if (dictionary != null) {
+            Integer index = dictionary.get(s);
+            if (index != null) {
+                writeVarint(buffer, (index << 1) | 1);
+                return;
+            }
+            dictionary.put(s, dictionary.size());
+        }
+        int length = utf8Length(s);
+        writeVarint(buffer, (length + 1) << 1);
+        writeUtf8(buffer, s);
+    }
+
+    private static String readString(ByteBuffer buffer, List<String> dictionary) {
+        int tag = readVarint(buffer);
+        if (tag == 0) {
+            return null;
+        }
+        if ((tag & 1) == 1) {
+            int index = tag >>> 1;
+            if (dictionary == null || index >= dictionary.size()) {
+                throw new IllegalArgumentException("Unknown dictionary reference " + index);
+            }
+            return dictionary.get(index);
+        }
+        String s = readUtf8(buffer, (tag >>> 1) - 1);
+        if (dictionary != null) {
+            dictionary.add(s);
+        }
+        return s;
+    }
+
+    private static void writeVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+
+    private static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); ++i) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                ++i;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encode the chars straight into the buffer. An unpaired surrogate is
+     * written as its three byte form so the length matches utf8Length.
+     */
+    private static void writeUtf8(ByteBuffer buffer, String s) {
+        for (int i = 0; i < s.length(); ++i) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buffer.put((byte) (0xF0 | (cp >> 18)));
+                buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (cp & 0x3F)));
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Decode one character at a time, the reverse of writeUtf8. The String
+     * constructor is not used for heap buffers because it replaces the three
+     * byte form of an unpaired surrogate with U+FFFD, so the same string would
+     * read back differently from a heap and a direct buffer. A sequence that
+     * is not UTF-8 or runs past the end of the string is rejected rather than
+     * read into the next field.
+     */
+    private static String readUtf8(ByteBuffer buffer, int length) {
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("String length " + length + " is past the end of the buffer");
+        }
+        StringBuilder sb = new StringBuilder(length);
+        int end = buffer.position() + length;
+        while (buffer.position() < end) {
+            int b = buffer.get() & 0xFF;
+            if (b < 0x80) {
+                sb.append((char) b);
+                continue;
+            }
+            int following;
+            int value;
+            if (b >= 0xC0 && b < 0xE0) {
+                following = 1;
+                value = b & 0x1F;
+            } else if (b >= 0xE0 && b < 0xF0) {
+                following = 2;
+                value = b & 0x0F;
+            } else if (b >= 0xF0 && b < 0xF8) {
+                following = 3;
+                value = b & 0x07;
+            } else {
+                throw new IllegalArgumentException("Malformed UTF-8 lead byte " + b);
+            }
+            if (buffer.position() + following > end) {
+                throw new IllegalArgumentException("UTF-8 sequence is past the end of the string");
+            }
+            for (int i = 0; i < following; ++i) {
+                int next = buffer.get() & 0xFF;
+                if ((next & 0xC0) != 0x80) {
+                    throw new IllegalArgumentException("Malformed UTF-8 continuation byte " + next);
+                }
+                value = (value << 6) | (next & 0x3F);
+            }
+            if (following == 3) {
+                // Throws IllegalArgumentException past U+10FFFF
+                sb.appendCodePoint(value);
+            } else {
+                sb.append((char) value);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,112 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.beans.ImmutableFishData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Creates fish objects from the rows of a ResultSet. Looking up a column by
+ * name has to search the column labels of the ResultSet so the index of each
+ * column is found once when the mapper is created and every row after that is
+ * read by index.
+ *
+ * A mapper belongs to the ResultSet it was created for. Create a new one for
+ * each query.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public final class FishRowMapper {
+
+    private final int idIndex;
+    private final int commonNameIndex;
+    private final int latinIndex;
+    private final int phIndex;
+    private final int khIndex;
+    private final int tempIndex;
+    private final int fishSizeIndex;
+    private final int speciesOriginIndex;
+    private final int tankSizeIndex;
+    private final int stockingIndex;
+    private final int dietIndex;
+
+    /**
+     * Resolve the index of every FISH column in the ResultSet
+     *
+     * @param resultSet
+     * @throws SQLException if a column is missing from the query
+     */
+    public FishRowMapper(final ResultSet resultSet) throws SQLException {
+        idIndex = resultSet.findColumn("ID");
+        commonNameIndex = resultSet.findColumn("COMMONNAME");
+        latinIndex = resultSet.findColumn("LATIN");
+        phIndex = resultSet.findColumn("PH");
+        khIndex = resultSet.findColumn("KH");
+        tempIndex = resultSet.findColumn("TEMP");
+        fishSizeIndex = resultSet.findColumn("FISHSIZE");
+        speciesOriginIndex = resultSet.findColumn("SPECIESORIGIN");
+        tankSizeIndex = resultSet.findColumn("TANKSIZE");
+        stockingIndex = resultSet.findColumn("STOCKING");
+        dietIndex = resultSet.findColumn("DIET");
+    }
+
+    /**
+     * Create a FishData from the current row. The bean is built with its
+     * non-default constructor so each field is written once.
+     *
+     * @param resultSet
+     * @return The FishData object
+     * @throws SQLException
+     */
+    public FishData toFishData(final ResultSet resultSet) throws SQLException {
+        return new FishData(resultSet.getInt(idIndex),
+                resultSet.getString(commonNameIndex),
+                resultSet.getString(latinIndex),
+                resultSet.getString(phIndex),
+                resultSet.getString(khIndex),
+                resultSet.getString(tempIndex),
+                resultSet.getString(fishSizeIndex),
+                resultSet.getString(speciesOriginIndex),
+                resultSet.getString(tankSizeIndex),
+                resultSet.getString(stockingIndex),
+                resultSet.getString(dietIndex));
+    }
+
+    /**
+     * Create an ImmutableFishData from the current row
+     *
+     * @param resultSet
+     * @return The ImmutableFishData object
+     * @throws SQLException
+     */
+    public ImmutableFishData toImmutableFishData(final ResultSet resultSet) throws SQLException {
+        return new ImmutableFishData(resultSet.getInt(idIndex),
+                resultSet.getString(commonNameIndex),
+                resultSet.getString(latinIndex),
+                resultSet.getString(phIndex),
+                resultSet.getString(khIndex),
+                resultSet.getString(tempIndex),
+                resultSet.getString(fishSizeIndex),
+                resultSet.getString(speciesOriginIndex),
+                resultSet.getString(tankSizeIndex),
+                resultSet.getString(stockingIndex),
+                resultSet.getString(dietIndex));
+    }
+
+    /**
+     * @return The index of the ID column
+     */
+    int idColumn() {
+        return idIndex;
+    }
+
+    /**
+     * @return The indexes of the ten text columns in the order of the
+     * FishData constructor
+     */
+    int[] textColumns() {
+        return new int[]{commonNameIndex, latinIndex, phIndex, khIndex, tempIndex, fishSizeIndex,
+            speciesOriginIndex, tankSizeIndex, stockingIndex, dietIndex};
+    }
+}
@@ -0,0 +1,358 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Holds a large number of FISH rows outside of the Java heap. On the heap
+ * every FishData is twelve objects, the bean and its eleven fields, and a few
+ * million of them make every garbage collection slower. Here a row is a fixed
+ * size slot in one direct buffer and the text of the row is in a second direct
+ * buffer, so the garbage collector sees a handful of objects no matter how many
+ * rows are stored.
+ *
+ * A slot is the ID followed by an offset and a length into the string buffer
+ * for each of the ten text columns. The text is stored as UTF-8. Values of
+ * SPECIESORIGIN, STOCKING and DIET, which have only a handful of values, are
+ * stored once and shared by the rows that have them. The heap map that finds
+ * a value already stored holds at most 1024 values and is emptied when a
+ * bulk load ends, so the heap used does not grow with the number of rows.
+ *
+ * Rows are found by ID with an open addressing hash table of int arrays, and
+ * are read through a FishRowView that decodes a field only when it is asked
+ * for. Adding an ID that is already stored replaces the row found by that ID,
+ * the text of the old row is not reclaimed.
+ *
+ * One thread may add rows. Once loading is finished any number of threads may
+ * read, each with its own view.
+ *
+ * The buffers are direct ByteBuffers and Java 21 has no supported way to free
+ * one. Their memory is returned only when the garbage collector collects them
+ * after close, which with a large heap and few collections can be long after.
+ * Direct memory, limited by -XX:MaxDirectMemorySize, can run out first, so
+ * reuse a store or keep the number of stores alive at once small.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishRowStore implements AutoCloseable {
+
+    // The ID followed by an offset and a length for each text column
+    static final int TEXT_COLUMNS = 10;
+    static final int SLOT_SIZE = Integer.BYTES + TEXT_COLUMNS * 2 * Integer.BYTES;
+
+    // Column numbers in slot order
+    static final int COMMONNAME = 0;
+    static final int LATIN = 1;
+    static final int PH = 2;
+    static final int KH = 3;
+    static final int TEMP = 4;
+    static final int FISHSIZE = 5;
+    static final int SPECIESORIGIN = 6;
+    static final int TANKSIZE = 7;
+    static final int STOCKING = 8;
+    static final int DIET = 9;
+
+    // The most values kept in the shared map
+    private static final int MAX_SHARED = 1024;
+
+    private ByteBuffer slots;
+    private ByteBuffer strings;
+    private int size;
+    private final IdIndex index = new IdIndex(1024);
+    // The location of each shared value already in the string buffer,
+    // packed as offset in the high int and length in the low int
+    private final Map<String, Long> shared = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param expectedRows The number of rows to make room for, the store grows
+     * if more are added
+     */
+    public FishRowStore(int expectedRows) {
+        slots = ByteBuffer.allocateDirect(Math.max(expectedRows, 16) * SLOT_SIZE);
+        strings = ByteBuffer.allocateDirect(Math.max(expectedRows, 16) * 32);
+    }
+
+    /**
+     * @return The number of rows stored
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of bytes used outside of the heap
+     */
+    public long offHeapBytes() {
+        return (long) slots.capacity() + strings.capacity();
+    }
+
+    /**
+     * Store a copy of a bean
+     *
+     * @param fishData
+     */
+    public void add(FishData fishData) {
+        int slot = beginRow(fishData.getId());
+        putText(slot, COMMONNAME, fishData.getCommonName());
+        putText(slot, LATIN, fishData.getLatin());
+        putText(slot, PH, fishData.getPh());
+        putText(slot, KH, fishData.getKh());
+        putText(slot, TEMP, fishData.getTemp());
+        putText(slot, FISHSIZE, fishData.getFishSize());
+        putText(slot, SPECIESORIGIN, fishData.getSpeciesOrigin());
+        putText(slot, TANKSIZE, fishData.getTankSize());
+        putText(slot, STOCKING, fishData.getStocking());
+        putText(slot, DIET, fishData.getDiet());
+    }
+
+    /**
+     * Store every remaining row of a ResultSet of the FISH columns. No FishData
+     * objects are created. The shared values found during the load are
+     * forgotten at the end of it.
+     *
+     * @param resultSet
+     * @return The number of rows read
+     * @throws SQLException
+     */
+    public int load(ResultSet resultSet) throws SQLException {
+        FishRowMapper mapper = new FishRowMapper(resultSet);
+        int idColumn = mapper.idColumn();
+        int[] textColumns = mapper.textColumns();
+        int count = 0;
+        try {
+            while (resultSet.next()) {
+                int slot = beginRow(resultSet.getInt(idColumn));
+                for (int column = 0; column < TEXT_COLUMNS; ++column) {
+                    putText(slot, column, resultSet.getString(textColumns[column]));
+                }
+                ++count;
+            }
+        } finally {
+            shared.clear();
+        }
+        return count;
+    }
+
+    /**
+     * Create a view that is not positioned on any row
+     *
+     * @return A new FishRowView
+     */
+    public FishRowView newView() {
+        return new FishRowView(this);
+    }
+
+    /**
+     * Visit every row in the order they were added with a single view
+     *
+     * @param action
+     */
+    public void forEach(Consumer<FishRowView> action) {
+        FishRowView view = newView();
+        for (int slot = 0; slot < size; ++slot) {
+            view.moveTo(slot);
+            action.accept(view);
+        }
+    }
+
+    /**
+     * Let go of the buffers. This does not free their memory, it is returned
+     * when the garbage collector collects them. The store cannot be used after
+     * it is closed.
+     */
+    @Override
+    public void close() {
+        slots = null;
+        strings = null;
+        size = 0;
+        shared.clear();
+    }
+
+    /**
+     * @return The slot of the ID or -1 if it is not stored
+     */
+    int slotOf(int id) {
+        return index.get(id);
+    }
+
+    int idAt(int slot) {
+        return slots.getInt(slot * SLOT_SIZE);
+    }
+
+    /**
+     * @return The number of UTF-8 bytes of a text column of a slot, -1 if the
+     * column is null
+     */
+    int textLength(int slot, int column) {
+        return slots.getInt(textPosition(slot, column) + Integer.BYTES);
+    }
+
+    /**
+     * Decode a text column of a slot straight from the string buffer. UTF-8
+     * never has more chars than bytes so chars must hold at least textLength.
+     *
+     * @return The number of chars decoded
+     */
+    int decodeText(int slot, int column, char[] chars) {
+        int position = textPosition(slot, column);
+        int offset = slots.getInt(position);
+        int end = offset + slots.getInt(position + Integer.BYTES);
+        int count = 0;
+        while (offset < end) {
+            int b = strings.get(offset++) & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if (b < 0xE0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (strings.get(offset++) & 0x3F));
+            } else if (b < 0xF0) {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((strings.get(offset++) & 0x3F) << 6)
+                        | (strings.get(offset++) & 0x3F));
+            } else {
+                int codePoint = ((b & 0x07) << 18) | ((strings.get(offset++) & 0x3F) << 12)
+                        | ((strings.get(offset++) & 0x3F) << 6) | (strings.get(offset++) & 0x3F);
+                count += Character.toChars(codePoint, chars, count);
+            }
+        }
+        return count;
+    }
+
+    private static int textPosition(int slot, int column) {
+        return slot * SLOT_SIZE + Integer.BYTES + column * 2 * Integer.BYTES;
+    }
+
+    /**
+     * Find the slot for an ID, a new one at the end if the ID is not stored
+     */
+    private int beginRow(int id) {
+        int slot = index.get(id);
+        if (slot < 0) {
+            slot = size;
+            if ((long) (slot + 1) * SLOT_SIZE > slots.capacity()) {
+                slots = grow(slots, (long) (slot + 1) * SLOT_SIZE);
+            }
+            index.put(id, slot);
+            ++size;
+        }
+        slots.putInt(slot * SLOT_SIZE, id);
+        return slot;
+    }
+
+    private void putText(int slot, int column, String value) {
+        int position = textPosition(slot, column);
+        if (value == null) {
+            slots.putInt(position, 0);
+            slots.putInt(position + Integer.BYTES, -1);
+            return;
+        }
+        boolean repeats = column == SPECIESORIGIN || column == STOCKING || column == DIET;
+        Long location = repeats ? shared.get(value) : null;
+        if (location == null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int offset = strings.position();
+            if ((long) offset + bytes.length > strings.capacity()) {
+                strings = grow(strings, (long) offset + bytes.length);
+            }
+            strings.put(bytes);
+            location = ((long) offset << 32) | bytes.length;
+            if (repeats && shared.size() < MAX_SHARED) {
+                shared.put(value, location);
+            }
+        }
+        slots.putInt(position, (int) (location >>> 32));
+        slots.putInt(position + Integer.BYTES, (int) (long) location);
+    }
+
+    /**
+     * Copy a buffer into one at least twice as large. A direct buffer cannot
+     * be larger than Integer.MAX_VALUE bytes.
+     */
+    private static ByteBuffer grow(ByteBuffer buffer, long needed) {
+        long capacity = Math.max(needed, (long) buffer.capacity() * 2);
+        if (needed > Integer.MAX_VALUE) {
+            throw new IllegalStateException("FishRowStore is full");
+        }
+        ByteBuffer larger = ByteBuffer.allocateDirect((int) Math.min(capacity, Integer.MAX_VALUE));
+        int position = buffer.position();
+        larger.put(0, buffer, 0, buffer.capacity());
+        larger.position(position);
+        return larger;
+    }
+
+    /**
+     * A map of ID to slot in two int arrays using linear probing. There are no
+     * removals so a key is never moved once placed.
+     */
+    private static final class IdIndex {
+
+        private static final int EMPTY = -1;
+
+        private int[] keys;
+        private int[] values;
+        private int count;
+
+        IdIndex(int capacity) {
+            keys = new int[capacity];
+            values = new int[capacity];
+            Arrays.fill(values, EMPTY);
+        }
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+                if (values[i] == EMPTY) {
+                    return -1;
+                }
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+        }
+
+        void put(int key, int value) {
+            // Keep the table at most half full so probes stay short
+            if ((count + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (values[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == EMPTY) {
+                ++count;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[capacity];
+            values = new int[capacity];
+            Arrays.fill(values, EMPTY);
+            count = 0;
+            for (int i = 0; i < oldKeys.length; ++i) {
+                if (oldValues[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        // Spread sequential IDs across the table
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
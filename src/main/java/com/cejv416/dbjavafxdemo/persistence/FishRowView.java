@@ -0,0 +1,118 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+
+/**
+ * A movable window onto one row of a FishRowStore. Moving the view costs
+ * nothing and a field is only decoded into a String when its getter is called,
+ * so one view can visit millions of rows without creating an object per row.
+ *
+ * A view is used by one thread. Call toFishData to keep a row after the view
+ * has moved on.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public final class FishRowView {
+
+    private final FishRowStore store;
+    private int slot = -1;
+    // Reused by every getter so that decoding a field creates only its String
+    private char[] chars = new char[64];
+
+    FishRowView(FishRowStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Position the view on a row by its place in the store
+     *
+     * @param slot From 0 to size() - 1
+     */
+    public void moveTo(int slot) {
+        if (slot < 0 || slot >= store.size()) {
+            throw new IndexOutOfBoundsException("No row " + slot);
+        }
+        this.slot = slot;
+    }
+
+    /**
+     * Position the view on the row with this ID
+     *
+     * @param id
+     * @return false if there is no such row, the view does not move
+     */
+    public boolean moveToId(int id) {
+        int found = store.slotOf(id);
+        if (found < 0) {
+            return false;
+        }
+        slot = found;
+        return true;
+    }
+
+    public int getId() {
+        return store.idAt(slot);
+    }
+
+    public String getCommonName() {
+        return text(FishRowStore.COMMONNAME);
+    }
+
+    public String getLatin() {
+        return text(FishRowStore.LATIN);
+    }
+
+    public String getPh() {
+        return text(FishRowStore.PH);
+    }
+
+    public String getKh() {
+        return text(FishRowStore.KH);
+    }
+
+    public String getTemp() {
+        return text(FishRowStore.TEMP);
+    }
+
+    public String getFishSize() {
+        return text(FishRowStore.FISHSIZE);
+    }
+
+    public String getSpeciesOrigin() {
+        return text(FishRowStore.SPECIESORIGIN);
+    }
+
+    public String getTankSize() {
+        return text(FishRowStore.TANKSIZE);
+    }
+
+    public String getStocking() {
+        return text(FishRowStore.STOCKING);
+    }
+
+    public String getDiet() {
+        return text(FishRowStore.DIET);
+    }
+
+    private String text(int column) {
+        int length = store.textLength(slot, column);
+        if (length < 0) {
+            return null;
+        }
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        return new String(chars, 0, store.decodeText(slot, column, chars));
+    }
+
+    /**
+     * Decode every field of the current row into a new bean
+     *
+     * @return The FishData object
+     */
+    public FishData toFishData() {
+        return new FishData(getId(), getCommonName(), getLatin(), getPh(), getKh(), getTemp(),
+                getFishSize(), getSpeciesOrigin(), getTankSize(), getStocking(), getDiet());
+    }
+}
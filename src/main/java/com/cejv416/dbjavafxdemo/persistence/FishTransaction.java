@@ -0,0 +1,272 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One connection with auto commit turned off. Every statement is prepared once
+ * for the life of the transaction and writes are sent as JDBC batches.
+ * Listeners of the FishDAO are told about the changes after commit and never
+ * about changes that are rolled back. When there are listeners the records an
+ * update or delete changes are read and locked first, so the before images
+ * they are told about cannot be changed by another writer.
+ *
+ * A transaction is used by one thread. It is created by
+ * FishDAO.beginTransaction and must be closed, which rolls back anything that
+ * was not committed.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishTransaction implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(FishTransaction.class.getName());
+
+    private final FishDAO fishDAO;
+    private final Connection connection;
+    private final StatementCache statements;
+    private final boolean readOnly;
+    // Notifications for the listeners that are sent after commit
+    private final List<Runnable> events = new ArrayList<>();
+    private boolean uncommitted;
+
+    FishTransaction(FishDAO fishDAO, Connection connection, int isolation, boolean readOnly) throws SQLException {
+        this.fishDAO = fishDAO;
+        this.connection = connection;
+        this.readOnly = readOnly;
+        try {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(isolation);
+            connection.setReadOnly(readOnly);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        this.statements = new StatementCache(connection);
+    }
+
+    /**
+     * @return true if the transaction was started as read only
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Retrieve all the records
+     *
+     * @return The List of FishData objects
+     * @throws SQLException
+     */
+    public List<FishData> findAll() throws SQLException {
+        return query(statements.prepare(FishDAO.SELECT_ALL));
+    }
+
+    /**
+     * Retrieve one record based on the primary key
+     *
+     * @param id
+     * @return The FishData object, an empty FishData if it is not found
+     * @throws SQLException
+     */
+    public FishData findID(int id) throws SQLException {
+        PreparedStatement pStatement = statements.prepare(FishDAO.SELECT_BY_ID);
+        pStatement.setInt(1, id);
+        List<FishData> rows = query(pStatement);
+        return rows.isEmpty() ? new FishData() : rows.get(0);
+    }
+
+    /**
+     * Retrieve the records for many primary keys
+     *
+     * @param ids The IDs to find, duplicates are ignored
+     * @return A map of ID to FishData
+     * @throws SQLException
+     */
+    public Map<Integer, FishData> findIDs(int[] ids) throws SQLException {
+        return fishDAO.findIDs(statements, Arrays.stream(ids).distinct().toArray());
+    }
+
+    /**
+     * Retrieve all the records with the same value in the Diet column
+     *
+     * @param diet
+     * @return The List of FishData objects
+     * @throws SQLException
+     */
+    public List<FishData> findDiet(String diet) throws SQLException {
+        PreparedStatement pStatement = statements.prepare(FishDAO.SELECT_BY_DIET);
+        pStatement.setString(1, diet);
+        return query(pStatement);
+    }
+
+    /**
+     * Add the records in one batch. The generated IDs are assigned to the
+     * beans.
+     *
+     * @param rows
+     * @return The update count of each row
+     * @throws SQLException
+     */
+    public int[] create(List<FishData> rows) throws SQLException {
+        checkWritable();
+        PreparedStatement ps = statements.prepareWithKeys(FishDAO.INSERT);
+        for (FishData fishData : rows) {
+            FishDAO.bindColumns(ps, fishData);
+            ps.addBatch();
+        }
+        int[] results = executeBatch(ps);
+        try (ResultSet rs = ps.getGeneratedKeys();) {
+            for (FishData fishData : rows) {
+                fishData.setId(rs.next() ? rs.getInt(1) : -1);
+                events.add(() -> fishDAO.fireCreated(fishData));
+            }
+        }
+        LOG.log(Level.INFO, "# of records created : {0}", rows.size());
+        return results;
+    }
+
+    /**
+     * Change the records in one batch
+     *
+     * @param rows Beans with an existing ID and new data in the fields
+     * @return The update count of each row
+     * @throws SQLException
+     */
+    public int[] update(List<FishData> rows) throws SQLException {
+        checkWritable();
+        Map<Integer, FishData> before = findBefore(rows.stream().mapToInt(FishData::getId).toArray());
+        PreparedStatement ps = statements.prepare(FishDAO.UPDATE);
+        for (FishData fishData : rows) {
+            FishDAO.bindColumns(ps, fishData);
+            ps.setInt(11, fishData.getId());
+            ps.addBatch();
+        }
+        int[] results = executeBatch(ps);
+        for (int i = 0; i < rows.size(); ++i) {
+            FishData after = rows.get(i);
+            FishData old = before.get(after.getId());
+            if (results[i] != 0 && old != null) {
+                events.add(() -> fishDAO.fireUpdated(old, after));
+            }
+        }
+        LOG.log(Level.INFO, "# of records updated : {0}", rows.size());
+        return results;
+    }
+
+    /**
+     * Remove the records in one batch
+     *
+     * @param ids The primary keys of the records to delete
+     * @return The update count of each ID
+     * @throws SQLException
+     */
+    public int[] delete(int[] ids) throws SQLException {
+        checkWritable();
+        Map<Integer, FishData> before = findBefore(ids);
+        PreparedStatement ps = statements.prepare(FishDAO.DELETE);
+        for (int id : ids) {
+            ps.setInt(1, id);
+            ps.addBatch();
+        }
+        int[] results = executeBatch(ps);
+        for (int i = 0; i < ids.length; ++i) {
+            FishData old = before.get(ids[i]);
+            if (results[i] != 0 && old != null) {
+                events.add(() -> fishDAO.fireDeleted(old));
+            }
+        }
+        LOG.log(Level.INFO, "# of records deleted : {0}", ids.length);
+        return results;
+    }
+
+    /**
+     * Make the changes permanent and then tell the listeners about them
+     *
+     * @throws SQLException
+     */
+    public void commit() throws SQLException {
+        List<Runnable> committed = new ArrayList<>(events);
+        fishDAO.commitAndNotify(connection, () -> {
+            // Runs only once the commit has succeeded
+            uncommitted = false;
+            events.clear();
+            committed.forEach(Runnable::run);
+        });
+    }
+
+    /**
+     * Undo the changes since the last commit
+     *
+     * @throws SQLException
+     */
+    public void rollback() throws SQLException {
+        connection.rollback();
+        uncommitted = false;
+        events.clear();
+    }
+
+    /**
+     * Roll back anything that was not committed and close the statements and
+     * the connection
+     *
+     * @throws SQLException
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (uncommitted) {
+                rollback();
+            }
+        } finally {
+            try {
+                statements.close();
+            } finally {
+                connection.close();
+            }
+        }
+    }
+
+    private List<FishData> query(PreparedStatement pStatement) throws SQLException {
+        List<FishData> rows = new ArrayList<>();
+        try (ResultSet resultSet = pStatement.executeQuery()) {
+            FishRowMapper mapper = new FishRowMapper(resultSet);
+            while (resultSet.next()) {
+                rows.add(mapper.toFishData(resultSet));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Send a batch. The transaction is marked as uncommitted before the batch
+     * is sent so that close rolls back a batch that fails part way.
+     */
+    private int[] executeBatch(PreparedStatement ps) throws SQLException {
+        uncommitted = true;
+        return ps.executeBatch();
+    }
+
+    /**
+     * The records as they are before a change, read and locked only if there
+     * is a listener to tell
+     */
+    private Map<Integer, FishData> findBefore(int[] ids) throws SQLException {
+        return fishDAO.hasListeners() ? fishDAO.findIDsForUpdate(statements, Arrays.stream(ids).distinct().toArray()) : Map.of();
+    }
+
+    private void checkWritable() throws SQLException {
+        if (readOnly) {
+            throw new SQLException("The transaction is read only");
+        }
+    }
+}
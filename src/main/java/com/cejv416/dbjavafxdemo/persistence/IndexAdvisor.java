@@ -0,0 +1,137 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Suggests indexes from the entries of a SlowQueryLog. A query is only
+ * considered when its EXPLAIN shows a full table scan and lists no index that
+ * could have been used instead. The columns it compares to a parameter in the
+ * WHERE clause and the columns of a GROUP BY or ORDER BY are the candidates,
+ * one single column index each. A column that already starts an index of its
+ * table is not suggested again.
+ *
+ * This only understands the simple single table statements used by FishDAO
+ * and is a starting point for a person to review, not something to apply
+ * automatically.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public final class IndexAdvisor {
+
+    private static final Pattern TABLE = Pattern.compile("\\b(?:FROM|UPDATE)\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHERE = Pattern.compile("\\bWHERE\\b(.*?)(?:\\bGROUP\\s+BY\\b|\\bORDER\\s+BY\\b|\\bLIMIT\\b|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern COMPARED = Pattern.compile("(\\w+)\\s*(?:=|<=|>=|<|>|\\bIN\\s*\\(|\\bLIKE\\b)\\s*\\?",
+            Pattern.CASE_INSENSITIVE);
+    // The whole list, the direction of each item is removed by ITEM
+    private static final Pattern GROUPED = Pattern.compile("\\b(?:GROUP|ORDER)\\s+BY\\s+(.+?)(?=\\bHAVING\\b|\\bORDER\\s+BY\\b|\\bLIMIT\\b|$)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ITEM = Pattern.compile("\\s*(\\w+)(?:\\s+(?:ASC|DESC))?\\s*", Pattern.CASE_INSENSITIVE);
+
+    private static final String INDEXED_COLUMNS = "SELECT TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.STATISTICS"
+            + " WHERE TABLE_SCHEMA = DATABASE() AND SEQ_IN_INDEX = 1";
+
+    private IndexAdvisor() {
+    }
+
+    /**
+     * Suggest indexes for the slow queries, leaving out the columns that
+     * already start an index in the database of the connection
+     *
+     * @param queries
+     * @param connection
+     * @return CREATE INDEX statements in the order they were first needed,
+     * without duplicates
+     * @throws SQLException
+     */
+    public static List<String> suggest(Collection<SlowQuery> queries, Connection connection) throws SQLException {
+        return suggest(queries, indexedColumns(connection));
+    }
+
+    /**
+     * Suggest indexes for the slow queries
+     *
+     * @param queries
+     * @param indexedColumns For each table in upper case, the columns in upper
+     * case that already start an index
+     * @return CREATE INDEX statements in the order they were first needed,
+     * without duplicates
+     */
+    public static List<String> suggest(Collection<SlowQuery> queries, Map<String, Set<String>> indexedColumns) {
+        Set<String> suggestions = new LinkedHashSet<>();
+        for (SlowQuery query : queries) {
+            if (!query.isFullScan() || query.isFullScanByChoice()) {
+                continue;
+            }
+            Matcher table = TABLE.matcher(query.sql());
+            if (!table.find()) {
+                continue;
+            }
+            String tableName = table.group(1).toUpperCase(Locale.ROOT);
+            Set<String> indexed = indexedColumns.getOrDefault(tableName, Set.of());
+            for (String column : candidateColumns(query.sql())) {
+                if (!indexed.contains(column)) {
+                    suggestions.add("CREATE INDEX IX_" + tableName + "_" + column + " ON " + tableName + " (" + column + ")");
+                }
+            }
+        }
+        return new ArrayList<>(suggestions);
+    }
+
+    /**
+     * Read the first column of every index in the current database
+     *
+     * @param connection
+     * @return For each table in upper case, the columns in upper case that
+     * start an index
+     * @throws SQLException
+     */
+    public static Map<String, Set<String>> indexedColumns(Connection connection) throws SQLException {
+        Map<String, Set<String>> indexed = new HashMap<>();
+        try (PreparedStatement pStatement = connection.prepareStatement(INDEXED_COLUMNS);
+                ResultSet resultSet = pStatement.executeQuery()) {
+            while (resultSet.next()) {
+                indexed.computeIfAbsent(resultSet.getString(1).toUpperCase(Locale.ROOT), t -> new HashSet<>())
+                        .add(resultSet.getString(2).toUpperCase(Locale.ROOT));
+            }
+        }
+        return indexed;
+    }
+
+    private static Set<String> candidateColumns(String sql) {
+        Set<String> columns = new LinkedHashSet<>();
+        Matcher where = WHERE.matcher(sql);
+        if (where.find()) {
+            Matcher compared = COMPARED.matcher(where.group(1));
+            while (compared.find()) {
+                columns.add(compared.group(1).toUpperCase(Locale.ROOT));
+            }
+        }
+        Matcher grouped = GROUPED.matcher(sql);
+        while (grouped.find()) {
+            for (String item : grouped.group(1).split(",")) {
+                // Expressions are not plain columns and are skipped
+                Matcher column = ITEM.matcher(item);
+                if (column.matches()) {
+                    columns.add(column.group(1).toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return columns;
+    }
+}
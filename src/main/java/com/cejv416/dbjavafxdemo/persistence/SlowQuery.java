@@ -0,0 +1,38 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One statement that took longer than the threshold of a SlowQueryLog.
+ *
+ * @param sql The SQL as it was prepared
+ * @param elapsedMillis How long the statement took to execute
+ * @param parameters The bind parameters in order, or an empty list if this
+ * execution was not sampled
+ * @param explain The rows returned by EXPLAIN, each row is a map of column
+ * label to value. Empty if EXPLAIN was not run or failed.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public record SlowQuery(String sql, long elapsedMillis, List<Object> parameters, List<Map<String, String>> explain) {
+
+    /**
+     * @return true if EXPLAIN shows that a table was read from start to end
+     */
+    public boolean isFullScan() {
+        return explain.stream().anyMatch(row -> "ALL".equalsIgnoreCase(row.get("type")));
+    }
+
+    /**
+     * @return true if a table was read from start to end although EXPLAIN
+     * lists an index that could have been used. The optimizer chose the scan,
+     * usually because the table is small or the value is not selective, so
+     * another index would not help.
+     */
+    public boolean isFullScanByChoice() {
+        return explain.stream().anyMatch(row -> "ALL".equalsIgnoreCase(row.get("type"))
+                && row.get("possible_keys") != null);
+    }
+}
@@ -0,0 +1,184 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the statements that take longer than a threshold. A connection is
+ * wrapped so that every PreparedStatement created on it is timed. When a
+ * statement is slow its SQL is run again on the same connection with EXPLAIN in
+ * front and the plan is kept with the entry. Bind parameters are kept for a
+ * sample of the slow statements as they may be large or private.
+ *
+ * A statement that streams its rows, with a fetch size of Integer.MIN_VALUE,
+ * is recorded without a plan. The connection cannot run EXPLAIN until the
+ * stream is closed, and the time is only until the first row.
+ *
+ * Only the most recent entries are kept. IndexAdvisor reads the entries to
+ * suggest indexes.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class SlowQueryLog {
+
+    private static final Logger LOG = Logger.getLogger(SlowQueryLog.class.getName());
+
+    private final long thresholdMillis;
+    private final double parameterSampleRate;
+    private final int maxEntries;
+    private final Deque<SlowQuery> entries = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Constructor
+     *
+     * @param thresholdMillis Statements that take at least this long are
+     * recorded
+     * @param parameterSampleRate The fraction of slow statements, from 0.0 to
+     * 1.0, that keep their bind parameters
+     * @param maxEntries The number of entries to keep
+     */
+    public SlowQueryLog(final long thresholdMillis, final double parameterSampleRate, final int maxEntries) {
+        this.thresholdMillis = thresholdMillis;
+        this.parameterSampleRate = parameterSampleRate;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return A copy of the entries, oldest first
+     */
+    public List<SlowQuery> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    /**
+     * Remove all the entries
+     */
+    public void clear() {
+        entries.clear();
+        size.set(0);
+    }
+
+    /**
+     * Wrap a connection so that its PreparedStatements are timed. Closing the
+     * wrapper closes the connection.
+     *
+     * @param connection
+     * @return The wrapped connection
+     */
+    public Connection wrap(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement ps && method.getName().equals("prepareStatement")) {
+                        return wrap(connection, ps, (String) args[0]);
+                    }
+                    return result;
+                });
+    }
+
+    private PreparedStatement wrap(final Connection connection, final PreparedStatement ps, final String sql) {
+        InvocationHandler handler = new InvocationHandler() {
+            // Parameters by index, the last value set wins
+            private final Map<Integer, Object> parameters = new TreeMap<>();
+            // Set when MySQL Connector/J is asked to stream the rows
+            private boolean streaming;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.equals("setFetchSize")) {
+                    streaming = args[0] instanceof Integer size && size == Integer.MIN_VALUE;
+                } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    parameters.clear();
+                } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                    long start = System.nanoTime();
+                    Object result = SlowQueryLog.invoke(ps, method, args);
+                    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                    if (elapsedMillis >= thresholdMillis) {
+                        // A batch has many sets of parameters so it is not explained
+                        boolean batch = name.equals("executeBatch");
+                        record(connection, sql, elapsedMillis, batch ? Collections.emptyList() : new ArrayList<>(parameters.values()),
+                                !batch && !streaming);
+                    }
+                    return result;
+                }
+                return SlowQueryLog.invoke(ps, method, args);
+            }
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, handler);
+    }
+
+    private void record(Connection connection, String sql, long elapsedMillis, List<Object> parameters, boolean explain) {
+        List<Map<String, String>> plan = explain ? explain(connection, sql, parameters) : Collections.emptyList();
+        boolean sampled = ThreadLocalRandom.current().nextDouble() < parameterSampleRate;
+        entries.addLast(new SlowQuery(sql, elapsedMillis, sampled ? parameters : Collections.emptyList(), plan));
+        if (size.incrementAndGet() > maxEntries) {
+            entries.pollFirst();
+            size.decrementAndGet();
+        }
+        LOG.log(Level.WARNING, "Slow query {0} ms: {1}", new Object[]{elapsedMillis, sql});
+    }
+
+    /**
+     * Run EXPLAIN for the statement with the same parameters. The unwrapped
+     * connection is used so that EXPLAIN is not itself timed. A failure is
+     * logged and an empty plan is returned.
+     */
+    private static List<Map<String, String>> explain(Connection connection, String sql, List<Object> parameters) {
+        List<Map<String, String>> plan = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.size(); ++i) {
+                ps.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet resultSet = ps.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                while (resultSet.next()) {
+                    Map<String, String> row = new LinkedHashMap<>();
+                    for (int c = 1; c <= metaData.getColumnCount(); ++c) {
+                        row.put(metaData.getColumnLabel(c), resultSet.getString(c));
+                    }
+                    plan.add(row);
+                }
+            }
+        } catch (SQLException e) {
+            LOG.log(Level.WARNING, "Unable to EXPLAIN " + sql, e);
+        }
+        return plan;
+    }
+
+    /**
+     * Call the real method and throw what it threw rather than the reflection
+     * wrapper
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.cejv416.dbjavafxdemo.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the PreparedStatements created on one connection so that a query that
+ * is run more than once on that connection is only prepared once. Closing the
+ * cache closes the statements but not the connection.
+ *
+ * A cache is used by one thread at a time, the same as its connection.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class StatementCache implements AutoCloseable {
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private final Map<String, PreparedStatement> keyStatements = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param connection The connection the statements are prepared on
+     */
+    public StatementCache(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @return The connection the statements are prepared on
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Return the statement for this SQL, preparing it the first time. The
+     * parameters of a reused statement are cleared.
+     *
+     * @param sql
+     * @return The PreparedStatement
+     * @throws SQLException
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement ps = statements.get(sql);
+        if (ps == null) {
+            ps = connection.prepareStatement(sql);
+            statements.put(sql, ps);
+        } else {
+            ps.clearParameters();
+        }
+        return ps;
+    }
+
+    /**
+     * Return the statement for this SQL that returns generated keys, preparing
+     * it the first time
+     *
+     * @param sql
+     * @return The PreparedStatement
+     * @throws SQLException
+     */
+    public PreparedStatement prepareWithKeys(String sql) throws SQLException {
+        PreparedStatement ps = keyStatements.get(sql);
+        if (ps == null) {
+            ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            keyStatements.put(sql, ps);
+        } else {
+            ps.clearParameters();
+        }
+        return ps;
+    }
+
+    /**
+     * Close all the statements. Every statement is closed even if one fails
+     * and the first failure is thrown.
+     *
+     * @throws SQLException
+     */
+    @Override
+    public void close() throws SQLException {
+        SQLException first = null;
+        List<PreparedStatement> all = new ArrayList<>(statements.values());
+        all.addAll(keyStatements.values());
+        for (PreparedStatement ps : all) {
+            try {
+                ps.close();
+            } catch (SQLException e) {
+                if (first == null) {
+                    first = e;
+                } else {
+                    first.addSuppressed(e);
+                }
+            }
+        }
+        statements.clear();
+        keyStatements.clear();
+        if (first != null) {
+            throw first;
+        }
+    }
+}
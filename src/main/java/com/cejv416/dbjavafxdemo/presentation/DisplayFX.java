@@ -1,14 +1,25 @@
 package com.cejv416.dbjavafxdemo.presentation;
 
+import com.cejv416.dbjavafxdemo.beans.FishCategory;
 import com.cejv416.dbjavafxdemo.business.FishManager;
+import java.util.Map;
 import javafx.application.Application;
+import javafx.geometry.Insets;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
+import javafx.scene.control.TitledPane;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
 public class DisplayFX extends Application {
 
+    private final FishManager fm = new FishManager();
     private TextArea textArea;
+    private VBox dashboard;
 
     /**
      * This basic FX start method creates a text area, puts it in a scene and
@@ -27,7 +38,26 @@ public class DisplayFX extends Application {
         textArea.setPrefSize(500, 600);
         textArea.setStyle("-fx-font-size:14pt; -fx-font-weight:bold; -fx-font-family:Consolas, monaco, monospace");
 
-        Scene myScene = new Scene(textArea);
+        // The dashboard beside the text area shows the counts by category
+        dashboard = new VBox(5);
+        dashboard.setPadding(new Insets(5));
+        dashboard.setPrefWidth(300);
+        fillDashboard();
+
+        Button refresh = new Button("Refresh Counts");
+        refresh.setOnAction(e -> {
+            fm.refreshBreakdowns();
+            fillDashboard();
+        });
+
+        VBox side = new VBox(5, refresh, new ScrollPane(dashboard));
+        side.setPadding(new Insets(5));
+
+        BorderPane root = new BorderPane();
+        root.setCenter(textArea);
+        root.setRight(side);
+
+        Scene myScene = new Scene(root);
 
         primaryStage.setScene(myScene);
         primaryStage.setTitle("DB Viewer");
@@ -39,7 +69,6 @@ public class DisplayFX extends Application {
      * Retrieve the records and display them
      */
     private String getTheFish() {
-        FishManager fm = new FishManager();
         String records = fm.retrieveFish();
         if (records != null && records.length() > 0) {
             return (records);
@@ -48,6 +77,28 @@ public class DisplayFX extends Application {
         }
     }
 
+    /**
+     * Show a titled pane for each category with the number of fish for each
+     * value. The counts come from the aggregates kept by the FishManager so
+     * the table is not read again.
+     */
+    private void fillDashboard() {
+        dashboard.getChildren().clear();
+        for (FishCategory category : FishCategory.values()) {
+            var sb = new StringBuilder();
+            Map<String, Long> counts = fm.retrieveBreakdown(category);
+            counts.forEach((value, count) -> {
+                sb.append(String.format("%5d  %s%n", count, value.isEmpty() ? "(none)" : value));
+            });
+            if (counts.isEmpty()) {
+                sb.append("No counts to display.");
+            }
+            Label label = new Label(sb.toString());
+            label.setStyle("-fx-font-family:Consolas, monaco, monospace");
+            dashboard.getChildren().add(new TitledPane(category.getLabel(), label));
+        }
+    }
+
     /**
      * It all begins here
      *
@@ -0,0 +1,141 @@
+package com.cejv416.dbjavafxdemo.benchmarks;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.persistence.FishDataCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the size and speed of FishDataCodec with Java serialization and
+ * JSON for blocks of rows.
+ *
+ * FishData is not Serializable so Java serialization is measured with a copy
+ * of its fields in a Serializable class. There is no JSON library in the
+ * project so the JSON is written by hand and only encoding is timed.
+ *
+ * This is not run by the unit tests. Run it with:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.cejv416.dbjavafxdemo.benchmarks.FishDataCodecBenchmark
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishDataCodecBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private record SerializableFish(int id, String commonName, String latin, String ph, String kh,
+            String temp, String fishSize, String speciesOrigin, String tankSize, String stocking,
+            String diet) implements Serializable {
+
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<FishData> rows = FishRows.beans(ROWS);
+        ArrayList<SerializableFish> copies = new ArrayList<>();
+        for (FishData f : rows) {
+            copies.add(new SerializableFish(f.getId(), f.getCommonName(), f.getLatin(), f.getPh(), f.getKh(),
+                    f.getTemp(), f.getFishSize(), f.getSpeciesOrigin(), f.getTankSize(), f.getStocking(),
+                    f.getDiet()));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(FishDataCodec.maxBlockSize(rows));
+        FishDataCodec.encodeBlock(rows, buffer, false);
+        int plainSize = buffer.position();
+        buffer.clear();
+        FishDataCodec.encodeBlock(rows, buffer, true);
+        int dictionarySize = buffer.position();
+        int serialSize = serialize(copies).length;
+        int jsonSize = json(rows).getBytes(StandardCharsets.UTF_8).length;
+
+        System.out.printf("Bytes per row for %d rows%n", ROWS);
+        System.out.printf("%-28s %8.1f%n", "codec", (double) plainSize / ROWS);
+        System.out.printf("%-28s %8.1f%n", "codec with dictionary", (double) dictionarySize / ROWS);
+        System.out.printf("%-28s %8.1f%n", "Java serialization", (double) serialSize / ROWS);
+        System.out.printf("%-28s %8.1f%n", "JSON", (double) jsonSize / ROWS);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(buffer.capacity());
+        Measure.measure("codec encode", ROWS, () -> {
+            buffer.clear();
+            FishDataCodec.encodeBlock(rows, buffer, false);
+            return buffer.position();
+        });
+        Measure.measure("codec dictionary encode", ROWS, () -> {
+            buffer.clear();
+            FishDataCodec.encodeBlock(rows, buffer, true);
+            return buffer.position();
+        });
+        Measure.measure("codec dictionary decode", ROWS, () -> {
+            buffer.flip();
+            return FishDataCodec.decodeBlock(buffer).size();
+        });
+        Measure.measure("codec direct encode", ROWS, () -> {
+            direct.clear();
+            FishDataCodec.encodeBlock(rows, direct, true);
+            return direct.position();
+        });
+        Measure.measure("codec direct decode", ROWS, () -> {
+            direct.flip();
+            return FishDataCodec.decodeBlock(direct).size();
+        });
+        Measure.measure("serialization encode", ROWS, () -> serialize(copies).length);
+        byte[] serialized = serialize(copies);
+        Measure.measure("serialization decode", ROWS, () -> {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+                return ((List<?>) in.readObject()).size();
+            }
+        });
+        Measure.measure("JSON encode", ROWS, () -> json(rows).getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static byte[] serialize(ArrayList<SerializableFish> copies) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(copies);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String json(List<FishData> rows) {
+        StringBuilder sb = new StringBuilder("[");
+        for (FishData f : rows) {
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(f.getId());
+            field(sb, "commonName", f.getCommonName());
+            field(sb, "latin", f.getLatin());
+            field(sb, "ph", f.getPh());
+            field(sb, "kh", f.getKh());
+            field(sb, "temp", f.getTemp());
+            field(sb, "fishSize", f.getFishSize());
+            field(sb, "speciesOrigin", f.getSpeciesOrigin());
+            field(sb, "tankSize", f.getTankSize());
+            field(sb, "stocking", f.getStocking());
+            field(sb, "diet", f.getDiet());
+            sb.append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static void field(StringBuilder sb, String name, String value) {
+        sb.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,101 @@
+package com.cejv416.dbjavafxdemo.benchmarks;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.beans.ImmutableFishData;
+import com.cejv416.dbjavafxdemo.persistence.FishRowMapper;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares reading rows by column name, as FishDAO used to, with the
+ * FishRowMapper that resolves the column indexes once. Also compares map
+ * lookups keyed by FishData and by ImmutableFishData.
+ *
+ * This is not run by the unit tests. Run it with:
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.cejv416.dbjavafxdemo.benchmarks.FishRowMapperBenchmark
+ *
+ * The ResultSet is a Proxy whose label lookup is a HashMap, as it is in
+ * MySQL Connector/J. Each getString by name then costs one extra hash lookup
+ * of a short string, which is small next to the reflective call of the Proxy.
+ * On this double the two ways of mapping a row measure within the noise of
+ * each other, around 200 ns/row, and allocate the same 336 bytes/row because
+ * both build the same bean and strings. The mapper removes work per column
+ * but it is not a measurable CPU or allocation win here. The clear gain is
+ * the map lookup, about 30 ns with an ImmutableFishData key against about
+ * 100 ns with a FishData key and no allocation for either.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishRowMapperBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        List<FishData> beans = FishRows.beans(ROWS);
+
+        Measure.measure("by name", ROWS, () -> {
+            ResultSet resultSet = FishRows.resultSet(beans);
+            long sum = 0;
+            while (resultSet.next()) {
+                sum += byName(resultSet).getId();
+            }
+            return sum;
+        });
+        Measure.measure("FishRowMapper", ROWS, () -> {
+            ResultSet resultSet = FishRows.resultSet(beans);
+            FishRowMapper mapper = new FishRowMapper(resultSet);
+            long sum = 0;
+            while (resultSet.next()) {
+                sum += mapper.toFishData(resultSet).getId();
+            }
+            return sum;
+        });
+
+        Map<FishData, Integer> beanMap = new HashMap<>();
+        Map<ImmutableFishData, Integer> immutableMap = new HashMap<>();
+        List<ImmutableFishData> immutables = beans.stream().map(ImmutableFishData::of).toList();
+        for (int i = 0; i < ROWS; ++i) {
+            beanMap.put(beans.get(i), i);
+            immutableMap.put(immutables.get(i), i);
+        }
+        Measure.measure("FishData key", ROWS, () -> {
+            long sum = 0;
+            for (FishData key : beans) {
+                sum += beanMap.get(key);
+            }
+            return sum;
+        });
+        Measure.measure("ImmutableFishData key", ROWS, () -> {
+            long sum = 0;
+            for (ImmutableFishData key : immutables) {
+                sum += immutableMap.get(key);
+            }
+            return sum;
+        });
+    }
+
+    /**
+     * The way FishDAO created a bean before FishRowMapper
+     */
+    private static FishData byName(ResultSet resultSet) throws SQLException {
+        FishData fishData = new FishData();
+        fishData.setCommonName(resultSet.getString("COMMONNAME"));
+        fishData.setDiet(resultSet.getString("DIET"));
+        fishData.setKh(resultSet.getString("KH"));
+        fishData.setLatin(resultSet.getString("LATIN"));
+        fishData.setPh(resultSet.getString("PH"));
+        fishData.setFishSize(resultSet.getString("FISHSIZE"));
+        fishData.setSpeciesOrigin(resultSet.getString("SPECIESORIGIN"));
+        fishData.setStocking(resultSet.getString("STOCKING"));
+        fishData.setTankSize(resultSet.getString("TANKSIZE"));
+        fishData.setTemp(resultSet.getString("TEMP"));
+        fishData.setId(resultSet.getInt("ID"));
+        return fishData;
+    }
+}
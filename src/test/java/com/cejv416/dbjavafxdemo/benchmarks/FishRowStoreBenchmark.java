@@ -0,0 +1,120 @@
+package com.cejv416.dbjavafxdemo.benchmarks;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.persistence.FishRowStore;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares keeping FISH rows in a List of FishData with keeping them in a
+ * FishRowStore. For each it reports the heap and direct memory used with the
+ * rows loaded, the time of a full collection and the collections caused by a
+ * workload that creates short lived objects while the rows are held.
+ *
+ * This is not run by the unit tests. Give the JVM enough heap for the List,
+ * the first argument is the number of rows:
+ *
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ * -Dexec.args="-Xmx4g -cp %classpath
+ * com.cejv416.dbjavafxdemo.benchmarks.FishRowStoreBenchmark 3000000"
+ *
+ * The heap figures are taken after System.gc and are the most reliable with
+ * -XX:+UseParallelGC, G1 may not return every free region to the count.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishRowStoreBenchmark {
+
+    private static final int BLOCK = 100_000;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        long baseHeap = usedHeap();
+        List<FishData> list = new ArrayList<>(rows);
+        for (int first = 0; first < rows; first += BLOCK) {
+            list.addAll(block(first, Math.min(BLOCK, rows - first)));
+        }
+        report("List<FishData>", rows, baseHeap);
+        System.out.printf("%-28s %s%n", "", list.get(rows / 2).getCommonName());
+        list = null;
+
+        baseHeap = usedHeap();
+        FishRowStore store = new FishRowStore(rows);
+        for (int first = 0; first < rows; first += BLOCK) {
+            block(first, Math.min(BLOCK, rows - first)).forEach(store::add);
+        }
+        report("FishRowStore", rows, baseHeap);
+        System.out.printf("%-28s off heap %d MB%n", "", store.offHeapBytes() >> 20);
+        System.out.printf("%-28s %s%n", "", store.newView().moveToId(rows / 2) ? "found" : "missing");
+        store.close();
+    }
+
+    /**
+     * The rows are created a block at a time so that only the block and the
+     * container being measured are on the heap
+     */
+    private static List<FishData> block(int first, int count) {
+        List<FishData> beans = FishRows.beans(count);
+        for (FishData fishData : beans) {
+            fishData.setId(fishData.getId() + first);
+            fishData.setCommonName("Fish number " + fishData.getId());
+            fishData.setLatin("Piscis numerus " + fishData.getId());
+        }
+        return beans;
+    }
+
+    private static void report(String name, int rows, long baseHeap) {
+        long heap = usedHeap() - baseHeap;
+        long start = System.nanoTime();
+        System.gc();
+        long fullGc = (System.nanoTime() - start) / 1_000_000;
+
+        long collections = collections();
+        long gcMillis = gcMillis();
+        start = System.nanoTime();
+        long blackhole = 0;
+        // Short lived garbage with a few survivors, like a UI refreshing
+        List<Object> survivors = new ArrayList<>();
+        for (int i = 0; i < 20_000_000; ++i) {
+            Object garbage = new int[8];
+            blackhole += garbage.hashCode();
+            if (i % 1000 == 0) {
+                survivors.add(new byte[256]);
+            }
+        }
+        long workload = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("%-28s heap %5d MB (%d bytes/row) direct %5d MB%n", name, heap >> 20, heap / rows, directBytes() >> 20);
+        System.out.printf("%-28s full GC %d ms, workload %d ms with %d collections taking %d ms (%d)%n", "",
+                fullGc, workload, collections() - collections, gcMillis() - gcMillis, blackhole + survivors.size());
+    }
+
+    private static long usedHeap() {
+        // A second collection frees what the first one only marked
+        System.gc();
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long directBytes() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed).sum();
+    }
+
+    private static long collections() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
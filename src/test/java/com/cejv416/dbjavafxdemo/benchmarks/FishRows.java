@@ -0,0 +1,143 @@
+package com.cejv416.dbjavafxdemo.benchmarks;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Test data for the benchmarks. The rows look like the FISH table with the
+ * low cardinality columns repeating the way they do in createFishTable.sql.
+ * The benchmarks do not need a database so a ResultSet over the rows is
+ * provided by a Proxy. Its label lookup works the way MySQL Connector/J does,
+ * a HashMap of the labels already asked for in front of a case insensitive
+ * map, so looking up a column by name costs about what it does with the
+ * driver.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public final class FishRows {
+
+    static final String[] COLUMNS = {"ID", "COMMONNAME", "LATIN", "PH", "KH", "TEMP", "FISHSIZE",
+        "SPECIESORIGIN", "TANKSIZE", "STOCKING", "DIET"};
+
+    private static final String[] PH = {"6.0-8.0", "6.0-7.0", "8.0-8.5", "", "N/P"};
+    private static final String[] KH = {"5-19 dH", "5-12 dH", "10-17 dH", "", "N/P"};
+    private static final String[] TEMP = {"72-78F", "75-82 F", "64-72F", "75-79F", ""};
+    private static final String[] ORIGIN = {"Asia", "Africa", "South America", "African-Malawi", "Australia", ""};
+    private static final String[] TANK = {"24 in Min.", "30 in Min.", "N/A", "4 Ft. Min", ""};
+    private static final String[] STOCKING = {"5+", "Pairs", "Harem", ""};
+    private static final String[] DIET = {"Omnivore", "Carnivore", "Herbivore", "Insectivore", ""};
+
+    private FishRows() {
+    }
+
+    /**
+     * Create beans with unique names and repeating category values
+     *
+     * @param count
+     * @return The beans, IDs start at 1
+     */
+    public static List<FishData> beans(final int count) {
+        List<FishData> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            rows.add(new FishData(i + 1, "Fish number " + i, "Piscis numerus " + i,
+                    PH[i % PH.length], KH[i % KH.length], TEMP[i % TEMP.length], (i % 40) + " in TL",
+                    ORIGIN[i % ORIGIN.length], TANK[i % TANK.length], STOCKING[i % STOCKING.length],
+                    DIET[i % DIET.length]));
+        }
+        return rows;
+    }
+
+    /**
+     * A forward only ResultSet over the beans that supports next, findColumn,
+     * getInt of the ID and getString by index or by label. Labels are matched
+     * without regard to case as JDBC drivers do.
+     *
+     * @param beans
+     * @return The ResultSet
+     */
+    public static ResultSet resultSet(final List<FishData> beans) {
+        Labels labels = new Labels();
+        int[] row = {-1};
+        return (ResultSet) Proxy.newProxyInstance(FishRows.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++row[0] < beans.size();
+                        case "findColumn":
+                            return index(labels, args[0]);
+                        case "getInt":
+                            if (index(labels, args[0]) != 1) {
+                                throw new SQLException("Only ID is an int column");
+                            }
+                            return beans.get(row[0]).getId();
+                        case "getString":
+                            return value(beans.get(row[0]), index(labels, args[0]));
+                        case "close":
+                            return null;
+                        default:
+                            throw new SQLException("Not supported: " + method.getName());
+                    }
+                });
+    }
+
+    /**
+     * The column labels of the FISH table
+     */
+    private static final class Labels {
+
+        private final Map<String, Integer> cache = new HashMap<>();
+        private final Map<String, Integer> ignoringCase = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        Labels() {
+            for (int i = 0; i < COLUMNS.length; ++i) {
+                ignoringCase.put(COLUMNS[i], i + 1);
+            }
+        }
+
+        Integer find(final String label) {
+            Integer index = cache.get(label);
+            if (index == null) {
+                index = ignoringCase.get(label);
+                if (index != null) {
+                    cache.put(label, index);
+                }
+            }
+            return index;
+        }
+    }
+
+    private static int index(final Labels labels, final Object column) throws SQLException {
+        if (column instanceof Integer index) {
+            return index;
+        }
+        Integer index = labels.find((String) column);
+        if (index == null) {
+            throw new SQLException("No column " + column);
+        }
+        return index;
+    }
+
+    private static String value(final FishData fishData, final int index) {
+        return switch (index) {
+            case 2 -> fishData.getCommonName();
+            case 3 -> fishData.getLatin();
+            case 4 -> fishData.getPh();
+            case 5 -> fishData.getKh();
+            case 6 -> fishData.getTemp();
+            case 7 -> fishData.getFishSize();
+            case 8 -> fishData.getSpeciesOrigin();
+            case 9 -> fishData.getTankSize();
+            case 10 -> fishData.getStocking();
+            case 11 -> fishData.getDiet();
+            default -> String.valueOf(fishData.getId());
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.cejv416.dbjavafxdemo.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Runs a task enough times to warm up and prints the average time and
+ * allocation per operation of the second half of the rounds.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+final class Measure {
+
+    private static final int ROUNDS = 20;
+
+    private static final com.sun.management.ThreadMXBean THREADS
+            = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * The work being measured. It returns a value derived from its results so
+     * that the JIT cannot remove the work.
+     */
+    interface Task {
+
+        long run() throws Exception;
+    }
+
+    private Measure() {
+    }
+
+    static void measure(String name, int operations, Task task) throws Exception {
+        long blackhole = 0;
+        long nanos = 0;
+        long bytes = 0;
+        for (int round = 0; round < ROUNDS; ++round) {
+            long startBytes = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            blackhole += task.run();
+            long elapsed = System.nanoTime() - start;
+            long allocated = THREADS.getCurrentThreadAllocatedBytes() - startBytes;
+            if (round >= ROUNDS / 2) {
+                nanos += elapsed;
+                bytes += allocated;
+            }
+        }
+        int measured = ROUNDS - ROUNDS / 2;
+        System.out.printf("%-28s %8.1f ns/op %8.1f bytes/op (%d)%n", name,
+                (double) nanos / measured / operations, (double) bytes / measured / operations, blackhole);
+    }
+}
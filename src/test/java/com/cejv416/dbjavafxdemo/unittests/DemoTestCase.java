@@ -1,8 +1,18 @@
 package com.cejv416.dbjavafxdemo.unittests;
 
+import com.cejv416.dbjavafxdemo.beans.FishCategory;
 import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.beans.ImmutableFishData;
+import com.cejv416.dbjavafxdemo.business.FishAggregateService;
+import com.cejv416.dbjavafxdemo.business.FishSession;
+import com.cejv416.dbjavafxdemo.persistence.FishBatchLoader;
 import com.cejv416.dbjavafxdemo.persistence.FishDAO;
 import com.cejv416.dbjavafxdemo.persistence.FishDAO;
+import com.cejv416.dbjavafxdemo.persistence.FishRowStore;
+import com.cejv416.dbjavafxdemo.persistence.FishRowView;
+import com.cejv416.dbjavafxdemo.persistence.IndexAdvisor;
+import com.cejv416.dbjavafxdemo.persistence.SlowQuery;
+import com.cejv416.dbjavafxdemo.persistence.SlowQueryLog;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -14,7 +24,10 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.junit.jupiter.api.AfterEach;
@@ -70,6 +83,211 @@ public class DemoTestCase {
         assertEquals(fishData1, fishData2, "testFindByID6: ");
     }
 
+    /**
+     * Finds every record plus IDs that do not exist. There are more IDs than
+     * fit in one IN list so the chunks are read in parallel.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testFindIDs() throws SQLException {
+        FishData fishData1 = new FishData(6, "African Brown Knife", "Xenomystus nigri", "6.0-8.0", "5-19 dH", "72-78F",
+                "12 in TL", "Africa", "", "", "Carnivore");
+        int[] ids = IntStream.concat(IntStream.rangeClosed(1, 1000), IntStream.of(6, 6, 6)).toArray();
+        FishDAO fd = new FishDAO();
+        Map<Integer, FishData> found = fd.findIDs(ids);
+        assertEquals(200, found.size(), "testFindIDs size: ");
+        assertEquals(fishData1, found.get(6), "testFindIDs 6: ");
+        assertFalse(found.containsKey(999), "testFindIDs 999: ");
+    }
+
+    /**
+     * Single lookups made through the batch loader are answered from one
+     * query
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testBatchLoader() throws Exception {
+        FishData fishData1 = new FishData(6, "African Brown Knife", "Xenomystus nigri", "6.0-8.0", "5-19 dH", "72-78F",
+                "12 in TL", "Africa", "", "", "Carnivore");
+        try (FishBatchLoader loader = new FishBatchLoader(new FishDAO(), 10, 100)) {
+            CompletableFuture<FishData> six = loader.load(6);
+            CompletableFuture<FishData> missing = loader.load(999);
+            assertEquals(fishData1, six.get(), "testBatchLoader 6: ");
+            assertEquals(-1, missing.get().getId(), "testBatchLoader 999: ");
+        }
+    }
+
+    /**
+     * With a threshold of 0 every statement is slow. After removing the DIET
+     * index findDiet must be recorded with its parameter and a full scan plan
+     * and the advisor must ask for the index back. The table is recreated
+     * after the test.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testSlowQueryLog() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);) {
+            connection.prepareStatement("DROP INDEX IX_FISH_DIET ON FISH").execute();
+        }
+        SlowQueryLog log = new SlowQueryLog(0, 1.0, 10);
+        FishDAO fd = new FishDAO();
+        fd.setSlowQueryLog(log);
+        fd.findDiet("Carnivore");
+
+        List<SlowQuery> entries = log.getEntries();
+        assertEquals(1, entries.size(), "testSlowQueryLog entries: ");
+        assertEquals(List.of("Carnivore"), entries.get(0).parameters(), "testSlowQueryLog parameters: ");
+        assertTrue(entries.get(0).isFullScan(), "testSlowQueryLog full scan: ");
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);) {
+            assertEquals(List.of("CREATE INDEX IX_FISH_DIET ON FISH (DIET)"), IndexAdvisor.suggest(entries, connection), "testSlowQueryLog advice: ");
+        }
+    }
+
+    /**
+     * Find by diet, update several and create one in a single session. Nothing
+     * is visible to another connection until commit.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testSessionCommit() throws SQLException {
+        FishDAO fd = new FishDAO();
+        FishData newFish = new FishData(-1, "Test Fish", "Testus fishus", "", "", "", "", "Asia", "", "", "Carnivore");
+        int carnivores;
+        try (FishSession session = new FishSession(fd, Connection.TRANSACTION_REPEATABLE_READ, false)) {
+            List<FishData> found = session.findDiet("Carnivore");
+            carnivores = found.size();
+            for (FishData fishData : found) {
+                fishData.setStocking("Pairs");
+                session.update(fishData);
+            }
+            session.create(newFish);
+            assertEquals(carnivores + 1, session.findDiet("Carnivore").size(), "testSessionCommit reads own writes: ");
+            assertEquals(carnivores, fd.findDiet("Carnivore").size(), "testSessionCommit not visible before commit: ");
+            session.commit();
+        }
+        List<FishData> after = fd.findDiet("Carnivore");
+        assertEquals(carnivores + 1, after.size(), "testSessionCommit created: ");
+        assertTrue(after.stream().allMatch(f -> f.getId() == newFish.getId() || f.getStocking().equals("Pairs")), "testSessionCommit updated: ");
+        assertEquals(newFish, fd.findID(newFish.getId()), "testSessionCommit ID assigned: ");
+    }
+
+    /**
+     * A delete committed through a session must reach a registered listener
+     * once, after commit
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testSessionDeleteNotifiesListener() throws SQLException {
+        FishDAO fd = new FishDAO();
+        FishAggregateService aggregates = new FishAggregateService(fd);
+        aggregates.refresh();
+        long carnivores = aggregates.getCount(FishCategory.DIET, "Carnivore");
+        try (FishSession session = new FishSession(fd, Connection.TRANSACTION_REPEATABLE_READ, false)) {
+            session.delete(6);
+            assertEquals(carnivores, aggregates.getCount(FishCategory.DIET, "Carnivore"), "testSessionDeleteNotifiesListener before commit: ");
+            session.commit();
+        }
+        assertEquals(carnivores - 1, aggregates.getCount(FishCategory.DIET, "Carnivore"), "testSessionDeleteNotifiesListener after commit: ");
+        assertEquals(carnivores - 1, fd.findDiet("Carnivore").size(), "testSessionDeleteNotifiesListener table: ");
+        aggregates.close();
+    }
+
+    /**
+     * Writes that are rolled back or never committed must not reach the table
+     * and a read only session must refuse writes
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testSessionRollback() throws SQLException {
+        FishDAO fd = new FishDAO();
+        try (FishSession session = new FishSession(fd, Connection.TRANSACTION_READ_COMMITTED, false)) {
+            session.delete(6);
+            assertEquals(-1, session.findID(6).getId(), "testSessionRollback deleted in session: ");
+            session.rollback();
+            session.delete(7);
+        }
+        assertEquals(200, fd.findAll().size(), "testSessionRollback: ");
+        try (FishSession session = new FishSession(fd, Connection.TRANSACTION_READ_COMMITTED, true)) {
+            assertEquals(200, session.findAll().size(), "testSessionRollback read only: ");
+            assertThrows(IllegalStateException.class, () -> session.delete(6));
+        }
+    }
+
+    /**
+     * Every record loaded into the off heap store must be found by its ID and
+     * read back the same as from findAll
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testLoadAllOffHeap() throws SQLException {
+        FishDAO fd = new FishDAO();
+        try (FishRowStore store = new FishRowStore(16)) {
+            assertEquals(200, fd.loadAll(store), "testLoadAllOffHeap loaded: ");
+            FishRowView view = store.newView();
+            for (FishData fishData : fd.findAll()) {
+                assertTrue(view.moveToId(fishData.getId()), "testLoadAllOffHeap found: ");
+                assertEquals(fishData, view.toFishData(), "testLoadAllOffHeap equals: ");
+            }
+            assertFalse(view.moveToId(999), "testLoadAllOffHeap 999: ");
+        }
+    }
+
+    /**
+     * The immutable records must be equal to and have the same hash code as the
+     * beans read from the same rows
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testFindAllImmutable() throws SQLException {
+        FishDAO fd = new FishDAO();
+        List<FishData> beans = fd.findAll();
+        List<ImmutableFishData> immutables = fd.findAllImmutable();
+        assertEquals(beans.size(), immutables.size(), "testFindAllImmutable size: ");
+        for (int i = 0; i < beans.size(); ++i) {
+            assertEquals(ImmutableFishData.of(beans.get(i)), immutables.get(i), "testFindAllImmutable equals: ");
+            assertEquals(beans.get(i).hashCode(), immutables.get(i).hashCode(), "testFindAllImmutable hashCode: ");
+            assertEquals(beans.get(i), immutables.get(i).toFishData(), "testFindAllImmutable toFishData: ");
+        }
+    }
+
+    /**
+     * The counts loaded with GROUP BY must agree with counting the beans and
+     * must follow a create, update and delete without reloading.
+     *
+     * @throws SQLException
+     */
+    @Test
+    public void testAggregatesFollowChanges() throws SQLException {
+        FishDAO fd = new FishDAO();
+        FishAggregateService aggregates = new FishAggregateService(fd);
+        aggregates.refresh();
+
+        long carnivores = fd.findDiet("Carnivore").size();
+        long herbivores = fd.findDiet("Herbivore").size();
+        assertEquals(carnivores, aggregates.getCount(FishCategory.DIET, "Carnivore"), "testAggregatesFollowChanges loaded: ");
+
+        FishData fishData = new FishData(-1, "Test Fish", "Testus fishus", "", "", "", "", "Asia", "", "", "Carnivore");
+        fd.create(fishData);
+        assertEquals(carnivores + 1, aggregates.getCount(FishCategory.DIET, "Carnivore"), "testAggregatesFollowChanges created: ");
+
+        fishData.setDiet("Herbivore");
+        fd.update(fishData);
+        assertEquals(carnivores, aggregates.getCount(FishCategory.DIET, "Carnivore"), "testAggregatesFollowChanges updated: ");
+        assertEquals(herbivores + 1, aggregates.getCount(FishCategory.DIET, "Herbivore"), "testAggregatesFollowChanges updated: ");
+
+        fd.delete(fishData.getId());
+        assertEquals(herbivores, aggregates.getCount(FishCategory.DIET, "Herbivore"), "testAggregatesFollowChanges deleted: ");
+        aggregates.close();
+    }
+
     /**
      * The database is recreated before each test. If the last test is
      * destructive then the database is in an unstable state. @AfterClass is
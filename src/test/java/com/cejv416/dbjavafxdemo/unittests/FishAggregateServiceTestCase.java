@@ -0,0 +1,128 @@
+package com.cejv416.dbjavafxdemo.unittests;
+
+import com.cejv416.dbjavafxdemo.beans.FishCategory;
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.business.FishAggregateService;
+import com.cejv416.dbjavafxdemo.persistence.FishDAO;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a refresh and the commits running beside it count every change
+ * exactly once. The DAO is replaced by one whose table is a single DIET count
+ * so no database is needed.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishAggregateServiceTestCase {
+
+    /**
+     * A DAO whose GROUP BY returns the number of carnivores it holds. The
+     * first count of DIET can be held until the test releases it.
+     */
+    private static class CountingDAO extends FishDAO {
+
+        volatile long carnivores;
+        final CountDownLatch counting = new CountDownLatch(1);
+        final CountDownLatch release;
+
+        CountingDAO(boolean hold) {
+            release = new CountDownLatch(hold ? 1 : 0);
+        }
+
+        @Override
+        public Map<String, Long> countBy(FishCategory category) {
+            if (category == FishCategory.DIET) {
+                counting.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Map.of("Carnivore", carnivores);
+            }
+            return Map.of();
+        }
+    }
+
+    private static FishData carnivore() {
+        return new FishData(1, "Test Fish", "Testus fishus", "", "", "", "", "Asia", "", "", "Carnivore");
+    }
+
+    /**
+     * A commit already in flight when the refresh starts is included in the
+     * counts, so its notification must not be added again
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRefreshWaitsForCommitInFlight() throws Exception {
+        CountingDAO dao = new CountingDAO(false);
+        FishAggregateService aggregates = new FishAggregateService(dao);
+
+        aggregates.beforeCommit();
+        dao.carnivores = 1;
+        CompletableFuture<Void> refresh = CompletableFuture.runAsync(() -> {
+            try {
+                aggregates.refresh();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThrows(TimeoutException.class, () -> refresh.get(200, TimeUnit.MILLISECONDS),
+                "testRefreshWaitsForCommitInFlight refresh waits: ");
+        aggregates.fishCreated(carnivore());
+        aggregates.afterCommit();
+
+        refresh.get(5, TimeUnit.SECONDS);
+        assertEquals(1, aggregates.getCount(FishCategory.DIET, "Carnivore"), "testRefreshWaitsForCommitInFlight: ");
+        aggregates.close();
+    }
+
+    /**
+     * A commit that starts while the counts are loading waits until they are
+     * loaded, so the counts never include it and its notification is added
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCommitWaitsForRefresh() throws Exception {
+        CountingDAO dao = new CountingDAO(true);
+        FishAggregateService aggregates = new FishAggregateService(dao);
+        aggregates.fishCreated(carnivore());
+        aggregates.fishCreated(carnivore());
+
+        CompletableFuture<Void> refresh = CompletableFuture.runAsync(() -> {
+            try {
+                aggregates.refresh();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(dao.counting.await(5, TimeUnit.SECONDS), "testCommitWaitsForRefresh counting: ");
+        // The old counts are still shown while the new ones load
+        assertEquals(2, aggregates.getCount(FishCategory.DIET, "Carnivore"), "testCommitWaitsForRefresh loading: ");
+
+        CompletableFuture<Void> commit = CompletableFuture.runAsync(() -> {
+            aggregates.beforeCommit();
+            dao.carnivores = 1;
+            aggregates.fishCreated(carnivore());
+            aggregates.afterCommit();
+        });
+        assertThrows(TimeoutException.class, () -> commit.get(200, TimeUnit.MILLISECONDS),
+                "testCommitWaitsForRefresh commit waits: ");
+
+        dao.release.countDown();
+        refresh.get(5, TimeUnit.SECONDS);
+        commit.get(5, TimeUnit.SECONDS);
+        assertEquals(1, aggregates.getCount(FishCategory.DIET, "Carnivore"), "testCommitWaitsForRefresh: ");
+        aggregates.close();
+    }
+}
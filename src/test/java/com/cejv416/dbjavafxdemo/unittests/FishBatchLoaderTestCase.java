@@ -0,0 +1,82 @@
+package com.cejv416.dbjavafxdemo.unittests;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.persistence.FishBatchLoader;
+import com.cejv416.dbjavafxdemo.persistence.FishDAO;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks how FishBatchLoader sends its batches and reports failures. The DAO
+ * is replaced so no database is needed.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishBatchLoaderTestCase {
+
+    /**
+     * A DAO that finds every ID, or fails with the exception it is given
+     */
+    private static class StubDAO extends FishDAO {
+
+        private final RuntimeException failure;
+
+        StubDAO(RuntimeException failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public Map<Integer, FishData> findIDs(int[] ids) {
+            if (failure != null) {
+                throw failure;
+            }
+            Map<Integer, FishData> found = new HashMap<>();
+            for (int id : ids) {
+                FishData fishData = new FishData();
+                fishData.setId(id);
+                found.put(id, fishData);
+            }
+            return found;
+        }
+    }
+
+    /**
+     * An exception that is not an SQLException must still complete every
+     * future of the batch instead of leaving the callers waiting
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testRuntimeExceptionCompletesBatch() throws Exception {
+        IllegalStateException failure = new IllegalStateException("driver bug");
+        try (FishBatchLoader loader = new FishBatchLoader(new StubDAO(failure), 10, 100)) {
+            CompletableFuture<FishData> one = loader.load(1);
+            CompletableFuture<FishData> two = loader.load(2);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> one.get(5, TimeUnit.SECONDS),
+                    "testRuntimeExceptionCompletesBatch 1: ");
+            assertSame(failure, e.getCause(), "testRuntimeExceptionCompletesBatch cause: ");
+            assertThrows(ExecutionException.class, () -> two.get(5, TimeUnit.SECONDS),
+                    "testRuntimeExceptionCompletesBatch 2: ");
+        }
+    }
+
+    /**
+     * With a maxBatch of 1 every request is sent at once rather than waiting
+     * for the window to end
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testMaxBatchOfOneSendsAtOnce() throws Exception {
+        try (FishBatchLoader loader = new FishBatchLoader(new StubDAO(null), 60_000, 1)) {
+            assertEquals(6, loader.load(6).get(5, TimeUnit.SECONDS).getId(), "testMaxBatchOfOneSendsAtOnce: ");
+        }
+    }
+}
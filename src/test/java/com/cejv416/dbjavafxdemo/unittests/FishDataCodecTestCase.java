@@ -0,0 +1,137 @@
+package com.cejv416.dbjavafxdemo.unittests;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.persistence.FishDataCodec;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round trip tests of the binary codec. These do not use the database.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishDataCodecTestCase {
+
+    private static FishData fish(int id, String commonName, String diet) {
+        return new FishData(id, commonName, "Latin " + id, "6.0-8.0", "5-19 dH", "72-78F",
+                "12 in TL", "Africa", "", "5+", diet);
+    }
+
+    /**
+     * Equals in FishData does not include the ID so it is checked separately
+     */
+    private static void assertSameFish(FishData expected, FishData actual) {
+        assertEquals(expected, actual);
+        assertEquals(expected.getId(), actual.getId());
+    }
+
+    @Test
+    public void testSingleRow() {
+        FishData fishData = fish(6, "African Brown Knife", "Carnivore");
+        ByteBuffer buffer = ByteBuffer.allocate(FishDataCodec.maxEncodedSize(fishData));
+        FishDataCodec.encode(fishData, buffer);
+        buffer.flip();
+        assertSameFish(fishData, FishDataCodec.decode(buffer));
+        assertFalse(buffer.hasRemaining(), "testSingleRow whole row read: ");
+    }
+
+    @Test
+    public void testNullsNegativeIdAndUnicode() {
+        FishData fishData = new FishData(-1, "Poisson-chat à barbillons", "Ancistrus 🐟", null,
+                "", "25°C", null, "日本", "", null, "");
+        ByteBuffer heap = ByteBuffer.allocate(FishDataCodec.maxEncodedSize(fishData));
+        FishDataCodec.encode(fishData, heap);
+        heap.flip();
+        assertSameFish(fishData, FishDataCodec.decode(heap));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(FishDataCodec.maxEncodedSize(fishData));
+        FishDataCodec.encode(fishData, direct);
+        direct.flip();
+        assertSameFish(fishData, FishDataCodec.decode(direct));
+    }
+
+    @Test
+    public void testBlocks() {
+        List<FishData> rows = new ArrayList<>();
+        for (int i = 0; i < 500; ++i) {
+            rows.add(fish(i, "Fish " + i, i % 3 == 0 ? "Carnivore" : "Omnivore"));
+        }
+        ByteBuffer plain = ByteBuffer.allocate(FishDataCodec.maxBlockSize(rows));
+        FishDataCodec.encodeBlock(rows, plain, false);
+        ByteBuffer dictionary = ByteBuffer.allocateDirect(FishDataCodec.maxBlockSize(rows));
+        FishDataCodec.encodeBlock(rows, dictionary, true);
+        assertTrue(dictionary.position() < plain.position(), "testBlocks dictionary is smaller: ");
+
+        plain.flip();
+        dictionary.flip();
+        List<FishData> fromPlain = FishDataCodec.decodeBlock(plain);
+        List<FishData> fromDictionary = FishDataCodec.decodeBlock(dictionary);
+        assertEquals(rows.size(), fromPlain.size());
+        assertEquals(rows.size(), fromDictionary.size());
+        for (int i = 0; i < rows.size(); ++i) {
+            assertSameFish(rows.get(i), fromPlain.get(i));
+            assertSameFish(rows.get(i), fromDictionary.get(i));
+        }
+    }
+
+    @Test
+    public void testUnpairedSurrogate() {
+        FishData fishData = new FishData(4, "Lone \uD83D", "\uDC1F first", null,
+                null, null, null, null, null, null, null);
+        ByteBuffer heap = ByteBuffer.allocate(FishDataCodec.maxEncodedSize(fishData));
+        FishDataCodec.encode(fishData, heap);
+        heap.flip();
+        assertSameFish(fishData, FishDataCodec.decode(heap));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(FishDataCodec.maxEncodedSize(fishData));
+        FishDataCodec.encode(fishData, direct);
+        direct.flip();
+        assertSameFish(fishData, FishDataCodec.decode(direct));
+    }
+
+    @Test
+    public void testMalformedUtf8() {
+        FishData fishData = fish(7, "\u00e9t\u00e9", "Carnivore");
+        ByteBuffer buffer = ByteBuffer.allocate(FishDataCodec.maxEncodedSize(fishData));
+        FishDataCodec.encode(fishData, buffer);
+        buffer.flip();
+        // The ID, the tag of COMMONNAME and then its first byte, the lead byte of \u00e9
+        int lead = 2;
+        assertEquals((byte) 0xC3, buffer.get(lead), "testMalformedUtf8 layout: ");
+
+        ByteBuffer badContinuation = copy(buffer);
+        badContinuation.put(lead + 1, (byte) 'x');
+        assertThrows(IllegalArgumentException.class, () -> FishDataCodec.decode(badContinuation),
+                "testMalformedUtf8 continuation: ");
+
+        // The last byte of the string is a lead byte, its sequence would end in the next field
+        ByteBuffer truncated = copy(buffer);
+        truncated.put(lead + 4, (byte) 0xC3);
+        assertThrows(IllegalArgumentException.class, () -> FishDataCodec.decode(truncated),
+                "testMalformedUtf8 truncated: ");
+
+        ByteBuffer badLead = copy(buffer);
+        badLead.put(lead, (byte) 0x80);
+        assertThrows(IllegalArgumentException.class, () -> FishDataCodec.decode(badLead),
+                "testMalformedUtf8 lead: ");
+    }
+
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+        copy.put(buffer.duplicate());
+        return copy.flip();
+    }
+
+    @Test
+    public void testEmptyBlock() {
+        ByteBuffer buffer = ByteBuffer.allocate(FishDataCodec.maxBlockSize(List.of()));
+        FishDataCodec.encodeBlock(List.of(), buffer, true);
+        buffer.flip();
+        assertTrue(FishDataCodec.decodeBlock(buffer).isEmpty());
+    }
+}
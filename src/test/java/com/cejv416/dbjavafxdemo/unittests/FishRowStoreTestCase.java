@@ -0,0 +1,42 @@
+package com.cejv416.dbjavafxdemo.unittests;
+
+import com.cejv416.dbjavafxdemo.beans.FishData;
+import com.cejv416.dbjavafxdemo.persistence.FishRowStore;
+import com.cejv416.dbjavafxdemo.persistence.FishRowView;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that text stored in a FishRowStore is decoded back unchanged. The
+ * rows are added as beans so no database is needed.
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class FishRowStoreTestCase {
+
+    /**
+     * Text of one, two, three and four UTF-8 bytes per character, an empty
+     * string, a null and a value longer than the view's first buffer must all
+     * come back as they went in
+     */
+    @Test
+    public void testTextRoundTrip() {
+        String longName = "Very Long Name ".repeat(10);
+        FishData first = new FishData(1, "Poisson-chat étoilé", "Pterois 海水",
+                "6.5-7.5", "", "22-26°C", "🐟 12 cm", "Asia", longName, "Groups", "Carnivore");
+        FishData second = new FishData(2, "Plain Fish", "Plainus", null, "5-12", "24", "5 cm",
+                "Asia", "40", "Groups", "Carnivore");
+        try (FishRowStore store = new FishRowStore(1)) {
+            store.add(first);
+            store.add(second);
+            FishRowView view = store.newView();
+            assertTrue(view.moveToId(1), "testTextRoundTrip found 1: ");
+            assertEquals(first, view.toFishData(), "testTextRoundTrip 1: ");
+            assertTrue(view.moveToId(2), "testTextRoundTrip found 2: ");
+            assertEquals(second, view.toFishData(), "testTextRoundTrip 2: ");
+            assertNull(view.getPh(), "testTextRoundTrip null: ");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.cejv416.dbjavafxdemo.unittests;
+
+import com.cejv416.dbjavafxdemo.persistence.IndexAdvisor;
+import com.cejv416.dbjavafxdemo.persistence.SlowQuery;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the suggestions of IndexAdvisor from hand made log entries so no
+ * database is needed
+ *
+ * @author Ken Fogel
+ * @version 1.0
+ */
+public class IndexAdvisorTestCase {
+
+    private static SlowQuery scan(String sql, String possibleKeys) {
+        Map<String, String> row = new HashMap<>();
+        row.put("table", "FISH");
+        row.put("type", "ALL");
+        row.put("possible_keys", possibleKeys);
+        return new SlowQuery(sql, 100, List.of(), List.of(row));
+    }
+
+    /**
+     * Every column of an ORDER BY list is a candidate whatever its direction
+     */
+    @Test
+    public void testOrderByDirections() {
+        SlowQuery query = scan("SELECT ID FROM FISH ORDER BY DIET DESC, ID, STOCKING ASC", null);
+        assertEquals(List.of("CREATE INDEX IX_FISH_DIET ON FISH (DIET)",
+                "CREATE INDEX IX_FISH_ID ON FISH (ID)",
+                "CREATE INDEX IX_FISH_STOCKING ON FISH (STOCKING)"),
+                IndexAdvisor.suggest(List.of(query), Map.of()), "testOrderByDirections: ");
+    }
+
+    /**
+     * A column that already starts an index is not suggested again
+     */
+    @Test
+    public void testExistingIndexNotSuggested() {
+        SlowQuery query = scan("SELECT ID FROM FISH WHERE DIET = ? AND STOCKING = ?", null);
+        assertEquals(List.of("CREATE INDEX IX_FISH_STOCKING ON FISH (STOCKING)"),
+                IndexAdvisor.suggest(List.of(query), Map.of("FISH", Set.of("ID", "DIET"))), "testExistingIndexNotSuggested: ");
+    }
+
+    /**
+     * A scan the optimizer chose over an index it could have used gets no
+     * suggestion
+     */
+    @Test
+    public void testScanByChoiceIgnored() {
+        SlowQuery query = scan("SELECT ID FROM FISH WHERE DIET = ?", "IX_FISH_DIET");
+        assertTrue(IndexAdvisor.suggest(List.of(query), Map.of()).isEmpty(), "testScanByChoiceIgnored: ");
+    }
+}
@@ -0,0 +1,13 @@
+-- Adds the indexes recommended by IndexAdvisor for the queries in FishDAO to
+-- a FISH table that was created before they were part of createFishTable.sql.
+-- Run it once against an existing AQUARIUM database. A table created by the
+-- current createFishTable.sql already has these indexes.
+--
+-- findDiet filters on DIET and FishAggregateService groups by DIET,
+-- SPECIESORIGIN and STOCKING.
+
+USE AQUARIUM;
+
+CREATE INDEX IX_FISH_DIET ON FISH (DIET);
+CREATE INDEX IX_FISH_SPECIESORIGIN ON FISH (SPECIESORIGIN);
+CREATE INDEX IX_FISH_STOCKING ON FISH (STOCKING);
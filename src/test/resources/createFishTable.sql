@@ -17,7 +17,11 @@ CREATE TABLE FISH (
   TANKSIZE varchar(38) NOT NULL default '',
   STOCKING varchar(28) NOT NULL default '',
   DIET varchar(28) NOT NULL default '',
-  PRIMARY KEY  (ID)
+  PRIMARY KEY  (ID),
+  -- findDiet and the GROUP BY counts of FishAggregateService
+  KEY IX_FISH_DIET (DIET),
+  KEY IX_FISH_SPECIESORIGIN (SPECIESORIGIN),
+  KEY IX_FISH_STOCKING (STOCKING)
 ) ENGINE=InnoDB;
 
 